@@ -1,9 +1,17 @@
 package com.unisoft.core.util;
 
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.nio.ByteBuffer;
 import java.util.Base64;
+import java.util.function.Supplier;
 
 /**
  * Utility type exposing Base64 encoding and decoding methods.
+ * <p>
+ * Besides complete {@code byte[]} inputs, streams of {@link ByteBuffer ByteBuffers} can be encoded and decoded
+ * incrementally, the few bytes that don't fill a complete Base64 group being carried over to the next buffer.
  *
  * @author omar.H.Ajmi
  * @since 19/10/2020
@@ -72,4 +80,149 @@ public class Base64Util {
     public static byte[] decodeString(String encoded) {
         return encoded == null ? null : Base64.getDecoder().decode(encoded);
     }
+
+    /**
+     * Encodes a stream of bytes to base64, incrementally.
+     *
+     * @param stream the stream of bytes to encode
+     * @return the stream of base64 encoded bytes
+     */
+    public static Flux<ByteBuffer> encodeStream(Flux<ByteBuffer> stream) {
+        return transform(stream, () -> new StreamEncoder(Base64.getEncoder()));
+    }
+
+    /**
+     * Encodes a stream of bytes to base64 without padding, incrementally.
+     *
+     * @param stream the stream of bytes to encode
+     * @return the stream of base64 encoded bytes
+     */
+    public static Flux<ByteBuffer> encodeStreamWithoutPadding(Flux<ByteBuffer> stream) {
+        return transform(stream, () -> new StreamEncoder(Base64.getEncoder().withoutPadding()));
+    }
+
+    /**
+     * Encodes a stream of bytes to base64 URL format, incrementally.
+     *
+     * @param stream the stream of bytes to encode
+     * @return the stream of base64 URL encoded bytes
+     */
+    public static Flux<ByteBuffer> encodeURLStream(Flux<ByteBuffer> stream) {
+        return transform(stream, () -> new StreamEncoder(Base64.getUrlEncoder()));
+    }
+
+    /**
+     * Encodes a stream of bytes to base64 URL format without padding, incrementally.
+     *
+     * @param stream the stream of bytes to encode
+     * @return the stream of base64 URL encoded bytes
+     */
+    public static Flux<ByteBuffer> encodeURLStreamWithoutPadding(Flux<ByteBuffer> stream) {
+        return transform(stream, () -> new StreamEncoder(Base64.getUrlEncoder().withoutPadding()));
+    }
+
+    /**
+     * Decodes a stream of base64 encoded bytes, with or without padding, incrementally.
+     * <p>
+     * The returned stream fails with an {@link IllegalArgumentException} if the input isn't valid base64.
+     *
+     * @param stream the stream of bytes to decode
+     * @return the stream of decoded bytes
+     */
+    public static Flux<ByteBuffer> decodeStream(Flux<ByteBuffer> stream) {
+        return transform(stream, () -> new StreamDecoder(Base64.getDecoder()));
+    }
+
+    /**
+     * Decodes a stream of bytes in base64 URL format, with or without padding, incrementally.
+     * <p>
+     * The returned stream fails with an {@link IllegalArgumentException} if the input isn't valid base64 URL.
+     *
+     * @param stream the stream of bytes to decode
+     * @return the stream of decoded bytes
+     */
+    public static Flux<ByteBuffer> decodeURLStream(Flux<ByteBuffer> stream) {
+        return transform(stream, () -> new StreamDecoder(Base64.getUrlDecoder()));
+    }
+
+    private static Flux<ByteBuffer> transform(Flux<ByteBuffer> stream, Supplier<StreamCodec> codecSupplier) {
+        return Flux.defer(() -> {
+            StreamCodec codec = codecSupplier.get();
+            return stream
+                    .map(codec::update)
+                    .concatWith(Mono.fromSupplier(codec::finish))
+                    .filter(ByteBuffer::hasRemaining);
+        });
+    }
+
+    /*
+     * Transforms a stream chunk by chunk in groups of a fixed number of bytes, carrying the bytes of an incomplete group
+     * over to the next chunk.
+     */
+    private abstract static class StreamCodec {
+        private final byte[] carry;
+        private int carried;
+
+        StreamCodec(int groupSize) {
+            this.carry = new byte[groupSize - 1];
+        }
+
+        ByteBuffer update(ByteBuffer chunk) {
+            int groupSize = carry.length + 1;
+            int total = carried + chunk.remaining();
+            int complete = total - total % groupSize;
+            if (complete == 0) {
+                chunk.get(carry, carried, chunk.remaining());
+                carried = total;
+                return ByteBuffer.allocate(0);
+            }
+
+            byte[] input = new byte[complete];
+            System.arraycopy(carry, 0, input, 0, carried);
+            chunk.get(input, carried, complete - carried);
+            carried = chunk.remaining();
+            chunk.get(carry, 0, carried);
+            return ByteBuffer.wrap(apply(input));
+        }
+
+        ByteBuffer finish() {
+            if (carried == 0) {
+                return ByteBuffer.allocate(0);
+            }
+            byte[] input = new byte[carried];
+            System.arraycopy(carry, 0, input, 0, carried);
+            carried = 0;
+            return ByteBuffer.wrap(apply(input));
+        }
+
+        abstract byte[] apply(byte[] input);
+    }
+
+    private static final class StreamEncoder extends StreamCodec {
+        private final Base64.Encoder encoder;
+
+        StreamEncoder(Base64.Encoder encoder) {
+            super(3);
+            this.encoder = encoder;
+        }
+
+        @Override
+        byte[] apply(byte[] input) {
+            return encoder.encode(input);
+        }
+    }
+
+    private static final class StreamDecoder extends StreamCodec {
+        private final Base64.Decoder decoder;
+
+        StreamDecoder(Base64.Decoder decoder) {
+            super(4);
+            this.decoder = decoder;
+        }
+
+        @Override
+        byte[] apply(byte[] input) {
+            return decoder.decode(input);
+        }
+    }
 }
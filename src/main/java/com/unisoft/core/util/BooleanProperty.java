@@ -0,0 +1,37 @@
+package com.unisoft.core.util;
+
+import java.util.function.BooleanSupplier;
+
+/**
+ * A handle to a {@code boolean} configuration, see {@link ConfigurationProperty}. Values other than {@code true},
+ * ignoring case, read as {@code false}, like {@link Boolean#parseBoolean(String)}.
+ *
+ * @author omar.H.Ajmi
+ * @since 16/10/2026
+ */
+public final class BooleanProperty extends ConfigurationProperty implements BooleanSupplier {
+    private final boolean defaultValue;
+
+    BooleanProperty(UnisoftConfiguration configuration, String name, boolean defaultValue) {
+        super(configuration, name);
+        this.defaultValue = defaultValue;
+    }
+
+    /**
+     * @return the value of the configuration, or the default value if it isn't set
+     */
+    @Override
+    public boolean getAsBoolean() {
+        return state().primitive != 0;
+    }
+
+    @Override
+    State parse(ConfigurationSnapshot snapshot, String value) {
+        return new State(snapshot, value, Boolean.parseBoolean(value) ? 1 : 0, null);
+    }
+
+    @Override
+    State parseDefault(ConfigurationSnapshot snapshot) {
+        return new State(snapshot, null, defaultValue ? 1 : 0, null);
+    }
+}
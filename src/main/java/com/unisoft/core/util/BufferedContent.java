@@ -0,0 +1,136 @@
+package com.unisoft.core.util;
+
+import com.unisoft.core.util.log.LogUtil;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import reactor.core.publisher.Flux;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Content collected by {@link FluxUtil#collectBufferedContent(Flux, long, long)}, held either in memory or, past the
+ * memory threshold, in a temporary file.
+ * <p>
+ * The content can be replayed any number of times until the handle is {@link #close() closed}, which deletes the
+ * temporary file if there is one.
+ *
+ * @author omar.H.Ajmi
+ * @since 16/10/2026
+ */
+public final class BufferedContent implements AutoCloseable {
+    private static final Logger LOGGER = LoggerFactory.getLogger(BufferedContent.class);
+
+    private final byte[] bytes;
+    private final Path file;
+    private final FileChannel channel;
+    private final long size;
+
+    BufferedContent(byte[] bytes) {
+        this.bytes = bytes;
+        this.file = null;
+        this.channel = null;
+        this.size = bytes.length;
+    }
+
+    BufferedContent(Path file, FileChannel channel, long size) {
+        this.bytes = null;
+        this.file = file;
+        this.channel = channel;
+        this.size = size;
+    }
+
+    /**
+     * @return the size of the content in bytes
+     */
+    public long size() {
+        return size;
+    }
+
+    /**
+     * @return whether the content was spilled to a temporary file
+     */
+    public boolean isSpilled() {
+        return file != null;
+    }
+
+    /**
+     * Replays the content as a stream of read-only buffers.
+     *
+     * @param chunkSize the size of the emitted buffers
+     * @return a {@link Flux} of the content
+     * @throws IllegalArgumentException if {@code chunkSize} is not positive
+     */
+    public Flux<ByteBuffer> toFluxByteBuffer(int chunkSize) {
+        if (chunkSize <= 0) {
+            throw new IllegalArgumentException("'chunkSize' must be positive.");
+        }
+        if (file != null) {
+            return FluxUtil.readFile(file, 0, size, chunkSize);
+        }
+
+        ByteBuffer content = ByteBuffer.wrap(bytes).asReadOnlyBuffer();
+        return Flux.range(0, (bytes.length + chunkSize - 1) / chunkSize)
+                .map(i -> {
+                    ByteBuffer chunk = content.duplicate();
+                    chunk.position(i * chunkSize).limit(Math.min(bytes.length, (i + 1) * chunkSize));
+                    return chunk.slice();
+                });
+    }
+
+    /**
+     * Opens a stream reading the content from the start. The caller is responsible for closing it.
+     *
+     * @return an {@link InputStream} of the content
+     * @throws UncheckedIOException if the temporary file cannot be opened
+     */
+    public InputStream toInputStream() {
+        if (file == null) {
+            return new ByteArrayInputStream(bytes);
+        }
+        try {
+            return Files.newInputStream(file);
+        } catch (IOException e) {
+            throw LogUtil.logExceptionAsError(LOGGER, new UncheckedIOException(e));
+        }
+    }
+
+    /**
+     * Gets the whole content as a single read-only buffer, memory mapping the temporary file if the content was
+     * spilled.
+     *
+     * @return a {@link ByteBuffer} of the content
+     * @throws IllegalStateException if the content is too large for a single buffer
+     * @throws UncheckedIOException  if the temporary file cannot be mapped
+     */
+    public ByteBuffer toByteBuffer() {
+        if (file == null) {
+            return ByteBuffer.wrap(bytes).asReadOnlyBuffer();
+        }
+        if (size > Integer.MAX_VALUE) {
+            throw LogUtil.logExceptionAsError(LOGGER,
+                    new IllegalStateException("Content of " + size + " bytes is too large for a single buffer."));
+        }
+        try {
+            return channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+        } catch (IOException e) {
+            throw LogUtil.logExceptionAsError(LOGGER, new UncheckedIOException(e));
+        }
+    }
+
+    /**
+     * Releases the content, deleting the temporary file if there is one.
+     */
+    @Override
+    public void close() {
+        if (file != null) {
+            SpillingByteBufferCollector.delete(file, channel);
+        }
+    }
+}
@@ -0,0 +1,110 @@
+package com.unisoft.core.util;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Collects a stream of {@link ByteBuffer ByteBuffers} into a single {@code byte[]} while copying every byte as few
+ * times as possible.
+ * <p>
+ * When the expected size is known the destination array is allocated once and each buffer is bulk copied straight
+ * into it. When the size is unknown the bytes are gathered in a list of chunks growing exponentially, which are then
+ * copied once into the final array.
+ *
+ * @author omar.H.Ajmi
+ * @since 16/10/2026
+ */
+final class ByteBufferCollector {
+    private static final int INITIAL_CHUNK_SIZE = 8 * 1024;
+    private static final int MAX_CHUNK_SIZE = 8 * 1024 * 1024;
+    private static final int MAX_ARRAY_SIZE = Integer.MAX_VALUE - 8;
+
+    private final List<byte[]> chunks = new ArrayList<>();
+    private byte[] current;
+    private int position;
+    private long size;
+
+    /**
+     * Creates a collector for a stream of unknown size.
+     */
+    ByteBufferCollector() {
+        this(-1);
+    }
+
+    /**
+     * Creates a collector for a stream whose size is expected to be {@code sizeHint}.
+     *
+     * @param sizeHint the expected number of bytes, a negative value if the size is unknown
+     * @throws IllegalArgumentException if {@code sizeHint} is larger than the maximum array size
+     */
+    ByteBufferCollector(long sizeHint) {
+        if (sizeHint > MAX_ARRAY_SIZE) {
+            throw new IllegalArgumentException("'sizeHint' cannot be larger than " + MAX_ARRAY_SIZE + ".");
+        }
+        this.current = sizeHint >= 0 ? new byte[(int) sizeHint] : null;
+    }
+
+    /**
+     * Copies the remaining bytes of the buffer into the collector, advancing the buffer position to its limit.
+     *
+     * @param byteBuffer the buffer to copy
+     * @throws IllegalStateException if the collected content would not fit into a single array
+     */
+    void write(ByteBuffer byteBuffer) {
+        int remaining = byteBuffer.remaining();
+        if (size + remaining > MAX_ARRAY_SIZE) {
+            throw new IllegalStateException("Collected content exceeds the maximum array size " + MAX_ARRAY_SIZE + ".");
+        }
+
+        size += remaining;
+        while (remaining > 0) {
+            if (current == null || position == current.length) {
+                nextChunk(remaining);
+            }
+            int length = Math.min(remaining, current.length - position);
+            byteBuffer.get(current, position, length);
+            position += length;
+            remaining -= length;
+        }
+    }
+
+    /**
+     * Gets the collected bytes.
+     * <p>
+     * If the bytes landed in a single array of the exact size, that array is returned without copying.
+     *
+     * @return the collected bytes
+     */
+    byte[] toByteArray() {
+        if (chunks.isEmpty()) {
+            if (current == null) {
+                return new byte[0];
+            }
+            return position == current.length ? current : Arrays.copyOf(current, position);
+        }
+
+        byte[] result = new byte[(int) size];
+        int offset = 0;
+        for (byte[] chunk : chunks) {
+            System.arraycopy(chunk, 0, result, offset, chunk.length);
+            offset += chunk.length;
+        }
+        System.arraycopy(current, 0, result, offset, position);
+        return result;
+    }
+
+    private void nextChunk(int required) {
+        int chunkSize;
+        if (current == null) {
+            chunkSize = INITIAL_CHUNK_SIZE;
+        } else {
+            chunks.add(current);
+            chunkSize = (int) Math.min(MAX_CHUNK_SIZE, Math.max(INITIAL_CHUNK_SIZE, (long) current.length * 2));
+        }
+        // a single large buffer is copied in one go rather than split across several chunks.
+        current = new byte[Math.max(chunkSize, Math.min(required, MAX_CHUNK_SIZE))];
+        position = 0;
+    }
+}
@@ -0,0 +1,182 @@
+package com.unisoft.core.util;
+
+import java.lang.ref.Cleaner;
+import java.nio.ByteBuffer;
+
+/**
+ * A pool of {@link ByteBuffer ByteBuffers} grouped in power of two size classes.
+ * <p>
+ * Released buffers are first kept in a small cache local to the releasing thread, then in one of several shared
+ * stripes, and are only dropped once both are full. Leasing looks in the same places in the same order, so a steady
+ * lease/release pattern does not allocate once the pool is warm.
+ * <p>
+ * Requests larger than {@link #MAX_POOLED_SIZE} are served with a fresh buffer that is not pooled.
+ *
+ * @author omar.H.Ajmi
+ * @since 16/10/2026
+ */
+public final class ByteBufferPool {
+    /**
+     * Smallest buffer capacity handed out by the pool.
+     */
+    public static final int MIN_POOLED_SIZE = 512;
+    /**
+     * Largest buffer capacity kept by the pool.
+     */
+    public static final int MAX_POOLED_SIZE = 1024 * 1024;
+
+    private static final int MIN_SHIFT = Integer.numberOfTrailingZeros(MIN_POOLED_SIZE);
+    private static final int SIZE_CLASSES = Integer.numberOfTrailingZeros(MAX_POOLED_SIZE) - MIN_SHIFT + 1;
+    private static final int THREAD_CACHE_SIZE = 16;
+    private static final int STRIPE_SIZE = 64;
+    private static final ByteBufferPool HEAP = new ByteBufferPool(false, false);
+
+    private final boolean direct;
+    private final Cleaner leakDetector;
+    private final Stripe[] stripes;
+    private final ThreadLocal<Stack[]> threadCaches = ThreadLocal.withInitial(ByteBufferPool::newStacks);
+
+    /**
+     * Creates a pool.
+     *
+     * @param direct        whether the pool hands out direct buffers instead of heap buffers
+     * @param leakDetection whether buffers that become unreachable without being released are logged along with the
+     *                      place they were leased from. This costs an allocation per lease and is meant for debugging
+     */
+    public ByteBufferPool(boolean direct, boolean leakDetection) {
+        this.direct = direct;
+        this.leakDetector = leakDetection ? Cleaner.create() : null;
+        this.stripes = new Stripe[Integer.highestOneBit(Math.max(1, Runtime.getRuntime().availableProcessors()) * 2)];
+        for (int i = 0; i < stripes.length; i++) {
+            stripes[i] = new Stripe();
+        }
+    }
+
+    /**
+     * @return the shared pool of heap buffers
+     */
+    public static ByteBufferPool heap() {
+        return HEAP;
+    }
+
+    private static Stack[] newStacks() {
+        Stack[] stacks = new Stack[SIZE_CLASSES];
+        for (int i = 0; i < SIZE_CLASSES; i++) {
+            stacks[i] = new Stack(THREAD_CACHE_SIZE);
+        }
+        return stacks;
+    }
+
+    private static int sizeClass(int size) {
+        if (size <= MIN_POOLED_SIZE) {
+            return 0;
+        }
+        return 32 - Integer.numberOfLeadingZeros(size - 1) - MIN_SHIFT;
+    }
+
+    /**
+     * Leases a buffer with room for at least {@code size} bytes. The returned buffer has a position of zero and a limit
+     * of {@code size}, and must be {@link PooledByteBuffer#release() released} once no longer used.
+     *
+     * @param size the number of bytes needed
+     * @return the leased buffer
+     * @throws IllegalArgumentException if {@code size} is negative
+     */
+    public PooledByteBuffer lease(int size) {
+        if (size < 0) {
+            throw new IllegalArgumentException("'size' cannot be negative.");
+        }
+
+        PooledByteBuffer pooled;
+        if (size > MAX_POOLED_SIZE) {
+            pooled = new PooledByteBuffer(this, allocate(size), -1);
+        } else {
+            int sizeClass = sizeClass(size);
+            pooled = threadCaches.get()[sizeClass].pop();
+            if (pooled == null) {
+                pooled = stripe().pop(sizeClass);
+            }
+            if (pooled == null) {
+                pooled = new PooledByteBuffer(this, allocate(MIN_POOLED_SIZE << sizeClass), sizeClass);
+            }
+        }
+        pooled.lease(size, leakDetector);
+        return pooled;
+    }
+
+    /**
+     * @return whether the pool hands out direct buffers
+     */
+    public boolean isDirect() {
+        return direct;
+    }
+
+    void recycle(PooledByteBuffer pooled) {
+        int sizeClass = pooled.sizeClass();
+        if (sizeClass < 0) {
+            return;
+        }
+        if (!threadCaches.get()[sizeClass].push(pooled)) {
+            stripe().push(sizeClass, pooled);
+        }
+    }
+
+    private ByteBuffer allocate(int capacity) {
+        return direct ? ByteBuffer.allocateDirect(capacity) : ByteBuffer.allocate(capacity);
+    }
+
+    private Stripe stripe() {
+        return stripes[(int) Thread.currentThread().getId() & (stripes.length - 1)];
+    }
+
+    /*
+     * Fixed capacity LIFO of free buffers, only ever touched by its owning thread.
+     */
+    private static final class Stack {
+        private final PooledByteBuffer[] elements;
+        private int size;
+
+        Stack(int capacity) {
+            this.elements = new PooledByteBuffer[capacity];
+        }
+
+        PooledByteBuffer pop() {
+            if (size == 0) {
+                return null;
+            }
+            PooledByteBuffer pooled = elements[--size];
+            elements[size] = null;
+            return pooled;
+        }
+
+        boolean push(PooledByteBuffer pooled) {
+            if (size == elements.length) {
+                return false;
+            }
+            elements[size++] = pooled;
+            return true;
+        }
+    }
+
+    /*
+     * Shared free lists, one per size class, guarded by the stripe's monitor.
+     */
+    private static final class Stripe {
+        private final Stack[] stacks;
+
+        Stripe() {
+            this.stacks = new Stack[SIZE_CLASSES];
+            for (int i = 0; i < SIZE_CLASSES; i++) {
+                stacks[i] = new Stack(STRIPE_SIZE);
+            }
+        }
+
+        synchronized PooledByteBuffer pop(int sizeClass) {
+            return stacks[sizeClass].pop();
+        }
+
+        synchronized void push(int sizeClass, PooledByteBuffer pooled) {
+            stacks[sizeClass].push(pooled);
+        }
+    }
+}
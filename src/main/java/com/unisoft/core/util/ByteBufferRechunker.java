@@ -0,0 +1,100 @@
+package com.unisoft.core.util;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Regroups a sequence of {@link ByteBuffer ByteBuffers} into buffers of a target size.
+ * <p>
+ * Buffers at least as large as the target are sliced without copying, smaller ones are copied into a pending chunk
+ * which is emitted once full or when {@link #flush() flushed}.
+ *
+ * @author omar.H.Ajmi
+ * @since 16/10/2026
+ */
+final class ByteBufferRechunker {
+    private final int chunkSize;
+    private byte[] pending;
+    private int pendingSize;
+    private long startedChunks;
+
+    ByteBufferRechunker(int chunkSize) {
+        this.chunkSize = chunkSize;
+    }
+
+    /**
+     * Adds a buffer, returning the chunks it completed.
+     *
+     * @param byteBuffer the buffer to add
+     * @return the completed chunks, possibly none
+     */
+    List<ByteBuffer> add(ByteBuffer byteBuffer) {
+        List<ByteBuffer> chunks = null;
+
+        if (pendingSize > 0) {
+            fillPending(byteBuffer);
+            if (pendingSize < chunkSize) {
+                return Collections.emptyList();
+            }
+            chunks = new ArrayList<>();
+            chunks.add(takePending());
+        }
+
+        while (byteBuffer.remaining() >= chunkSize) {
+            if (chunks == null) {
+                chunks = new ArrayList<>();
+            }
+            ByteBuffer chunk = byteBuffer.duplicate();
+            chunk.limit(chunk.position() + chunkSize);
+            chunks.add(chunk.slice());
+            byteBuffer.position(byteBuffer.position() + chunkSize);
+        }
+
+        if (byteBuffer.hasRemaining()) {
+            fillPending(byteBuffer);
+        }
+        return chunks == null ? Collections.emptyList() : chunks;
+    }
+
+    /**
+     * Takes the pending chunk even if it isn't full.
+     *
+     * @return the pending chunk, or nothing if there are no pending bytes
+     */
+    List<ByteBuffer> flush() {
+        return pendingSize == 0 ? Collections.emptyList() : Collections.singletonList(takePending());
+    }
+
+    /**
+     * @return whether bytes are pending
+     */
+    boolean hasPending() {
+        return pendingSize > 0;
+    }
+
+    /**
+     * @return the number of pending chunks started so far, which identifies the current pending chunk
+     */
+    long startedChunks() {
+        return startedChunks;
+    }
+
+    private void fillPending(ByteBuffer byteBuffer) {
+        if (pending == null) {
+            pending = new byte[chunkSize];
+            startedChunks++;
+        }
+        int length = Math.min(byteBuffer.remaining(), chunkSize - pendingSize);
+        byteBuffer.get(pending, pendingSize, length);
+        pendingSize += length;
+    }
+
+    private ByteBuffer takePending() {
+        ByteBuffer chunk = ByteBuffer.wrap(pending, 0, pendingSize);
+        pending = null;
+        pendingSize = 0;
+        return chunk;
+    }
+}
@@ -0,0 +1,78 @@
+package com.unisoft.core.util;
+
+/**
+ * A range of bytes, identified by the offset of its first byte and its length. A range whose length reaches past
+ * {@link Long#MAX_VALUE} is open-ended: it extends to the end of the content.
+ *
+ * @author omar.H.Ajmi
+ * @since 16/10/2026
+ */
+public final class ByteRange {
+    private final long offset;
+    private final long length;
+
+    /**
+     * Creates a new {@link ByteRange}.
+     *
+     * @param offset the offset of the first byte of the range
+     * @param length the number of bytes in the range
+     * @throws IllegalArgumentException if {@code offset} or {@code length} is negative
+     */
+    public ByteRange(long offset, long length) {
+        if (offset < 0) {
+            throw new IllegalArgumentException("'offset' cannot be negative.");
+        }
+        if (length < 0) {
+            throw new IllegalArgumentException("'length' cannot be negative.");
+        }
+        this.offset = offset;
+        this.length = length;
+    }
+
+    /**
+     * @return the offset of the first byte of the range
+     */
+    public long offset() {
+        return offset;
+    }
+
+    /**
+     * @return the number of bytes in the range
+     */
+    public long length() {
+        return length;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) {
+            return true;
+        }
+        if (!(obj instanceof ByteRange)) {
+            return false;
+        }
+        ByteRange other = (ByteRange) obj;
+        return offset == other.offset && length == other.length;
+    }
+
+    @Override
+    public int hashCode() {
+        return Long.hashCode(offset) * 31 + Long.hashCode(length);
+    }
+
+    /**
+     * @return whether the range extends to the end of the content
+     */
+    public boolean isOpenEnded() {
+        return length > Long.MAX_VALUE - offset;
+    }
+
+    /**
+     * @return the range in the format of an HTTP {@code Range} header value, e.g. {@code bytes=0-1023}, or
+     * {@code bytes=1024-} if it is open-ended
+     */
+    @Override
+    public String toString() {
+        return isOpenEnded() ? "bytes=" + offset + "-" : "bytes=" + offset + "-" + (offset + length - 1);
+    }
+}
@@ -0,0 +1,97 @@
+package com.unisoft.core.util;
+
+import java.nio.ByteBuffer;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.zip.Checksum;
+
+/**
+ * Checksum and digest algorithms that can be computed incrementally over a stream of {@link ByteBuffer ByteBuffers}.
+ * <p>
+ * CRC values are represented as their 4 bytes in big-endian order.
+ *
+ * @author omar.H.Ajmi
+ * @since 16/10/2026
+ */
+public enum ChecksumAlgorithm {
+    CRC32 {
+        @Override
+        Digester newDigester() {
+            return new ChecksumDigester(new java.util.zip.CRC32());
+        }
+    },
+    CRC32C {
+        @Override
+        Digester newDigester() {
+            return new ChecksumDigester(new java.util.zip.CRC32C());
+        }
+    },
+    MD5 {
+        @Override
+        Digester newDigester() {
+            return new MessageDigester("MD5");
+        }
+    },
+    SHA_256 {
+        @Override
+        Digester newDigester() {
+            return new MessageDigester("SHA-256");
+        }
+    };
+
+    abstract Digester newDigester();
+
+    /*
+     * Incremental computation of a digest. Updating doesn't move the position of the buffer.
+     */
+    interface Digester {
+        void update(ByteBuffer byteBuffer);
+
+        byte[] digest();
+    }
+
+    private static final class ChecksumDigester implements Digester {
+        private final Checksum checksum;
+
+        ChecksumDigester(Checksum checksum) {
+            this.checksum = checksum;
+        }
+
+        @Override
+        public void update(ByteBuffer byteBuffer) {
+            int position = byteBuffer.position();
+            checksum.update(byteBuffer);
+            byteBuffer.position(position);
+        }
+
+        @Override
+        public byte[] digest() {
+            return ByteBuffer.allocate(4).putInt((int) checksum.getValue()).array();
+        }
+    }
+
+    private static final class MessageDigester implements Digester {
+        private final MessageDigest messageDigest;
+
+        MessageDigester(String algorithm) {
+            try {
+                this.messageDigest = MessageDigest.getInstance(algorithm);
+            } catch (NoSuchAlgorithmException e) {
+                // every Java platform is required to support MD5 and SHA-256.
+                throw new IllegalStateException(e);
+            }
+        }
+
+        @Override
+        public void update(ByteBuffer byteBuffer) {
+            int position = byteBuffer.position();
+            messageDigest.update(byteBuffer);
+            byteBuffer.position(position);
+        }
+
+        @Override
+        public byte[] digest() {
+            return messageDigest.digest();
+        }
+    }
+}
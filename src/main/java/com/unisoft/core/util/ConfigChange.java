@@ -0,0 +1,78 @@
+package com.unisoft.core.util;
+
+import com.unisoft.core.annotations.Immutable;
+
+import java.util.Objects;
+
+/**
+ * A change of a configuration of an {@link UnisoftConfiguration}, emitted by {@link UnisoftConfiguration#changes()}.
+ *
+ * @author omar.H.Ajmi
+ * @since 16/10/2026
+ */
+@Immutable
+public final class ConfigChange {
+    private final String name;
+    private final String oldValue;
+    private final String newValue;
+    private final long version;
+
+    ConfigChange(String name, String oldValue, String newValue, long version) {
+        this.name = name;
+        this.oldValue = oldValue;
+        this.newValue = newValue;
+        this.version = version;
+    }
+
+    /**
+     * @return the name of the configuration
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * @return the value of the configuration before the change, {@code null} if it was added
+     */
+    public String getOldValue() {
+        return oldValue;
+    }
+
+    /**
+     * @return the value of the configuration after the change, {@code null} if it was removed
+     */
+    public String getNewValue() {
+        return newValue;
+    }
+
+    /**
+     * @return the {@link ConfigurationSnapshot#getVersion() version} of the configuration holding the new value
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) {
+            return true;
+        }
+        if (!(obj instanceof ConfigChange)) {
+            return false;
+        }
+        final ConfigChange other = (ConfigChange) obj;
+        return version == other.version && name.equals(other.name) && Objects.equals(oldValue, other.oldValue)
+                && Objects.equals(newValue, other.newValue);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(name, oldValue, newValue, version);
+    }
+
+    @Override
+    public String toString() {
+        return "ConfigChange{name=" + name + ", oldValue=" + oldValue + ", newValue=" + newValue + ", version="
+                + version + "}";
+    }
+}
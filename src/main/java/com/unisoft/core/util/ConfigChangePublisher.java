@@ -0,0 +1,106 @@
+package com.unisoft.core.util;
+
+import reactor.core.publisher.FluxSink;
+
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Predicate;
+
+/**
+ * Listener emitting the changes of an {@link UnisoftConfiguration} to a {@link FluxSink}, used by
+ * {@link UnisoftConfiguration#changes()}.
+ * <p>
+ * Changes are only emitted once downstream requested them. Until then they are kept per configuration name, a new
+ * change of a pending configuration replacing the pending one, so a slow subscriber holds at most one change per
+ * configuration and only sees the latest value of each.
+ *
+ * @author omar.H.Ajmi
+ * @since 16/10/2026
+ */
+final class ConfigChangePublisher implements ConfigurationListener {
+    private final FluxSink<ConfigChange> sink;
+    private final Predicate<String> filter;
+    private final Object lock = new Object();
+    private final Map<String, ConfigChange> pending = new LinkedHashMap<>();
+    private long demand;
+    private boolean draining;
+
+    ConfigChangePublisher(FluxSink<ConfigChange> sink, Predicate<String> filter) {
+        this.sink = sink;
+        this.filter = filter;
+        sink.onRequest(this::request);
+    }
+
+    @Override
+    public void onChange(ConfigurationSnapshot previous, ConfigurationSnapshot current) {
+        final Set<String> names = new HashSet<>();
+        previous.addChangeableNames(names);
+        current.addChangeableNames(names);
+        synchronized (lock) {
+            for (String name : names) {
+                final String oldValue = previous.get(name);
+                final String newValue = current.get(name);
+                if (!Objects.equals(oldValue, newValue) && filter.test(name)) {
+                    offer(new ConfigChange(name, oldValue, newValue, current.getVersion()));
+                }
+            }
+        }
+        drain();
+    }
+
+    /*
+     * Merges the change with the pending change of the same configuration, if any. Called under the lock.
+     */
+    private void offer(ConfigChange change) {
+        final ConfigChange previous = pending.get(change.getName());
+        if (previous == null) {
+            pending.put(change.getName(), change);
+        } else if (Objects.equals(previous.getOldValue(), change.getNewValue())) {
+            // changed back before being emitted.
+            pending.remove(change.getName());
+        } else {
+            pending.put(change.getName(), new ConfigChange(change.getName(), previous.getOldValue(),
+                    change.getNewValue(), change.getVersion()));
+        }
+    }
+
+    private void request(long n) {
+        synchronized (lock) {
+            demand = demand + n < 0 ? Long.MAX_VALUE : demand + n;
+        }
+        drain();
+    }
+
+    /*
+     * Emits the pending changes while there is demand, from a single thread at a time. The state is checked again
+     * under the lock before giving up, so changes offered or requests made meanwhile are never left behind.
+     */
+    private void drain() {
+        synchronized (lock) {
+            if (draining) {
+                return;
+            }
+            draining = true;
+        }
+        for (; ; ) {
+            final ConfigChange next;
+            synchronized (lock) {
+                if (demand == 0 || pending.isEmpty() || sink.isCancelled()) {
+                    draining = false;
+                    return;
+                }
+                final Iterator<ConfigChange> iterator = pending.values().iterator();
+                next = iterator.next();
+                iterator.remove();
+                if (demand != Long.MAX_VALUE) {
+                    demand--;
+                }
+            }
+            sink.next(next);
+        }
+    }
+}
@@ -0,0 +1,132 @@
+package com.unisoft.core.util;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * The {@link ConfigurationSource sources} of an {@link UnisoftConfiguration}, in priority order, along with the
+ * configurations of those loaded in bulk.
+ *
+ * @author omar.H.Ajmi
+ * @since 16/10/2026
+ */
+final class ConfigurationLayers {
+    /*
+     * No sources given: the configuration probes the runtime parameters then the environment variables itself.
+     */
+    static final ConfigurationLayers NONE = new ConfigurationLayers(Collections.emptyList(), Collections.emptyList());
+
+    private final List<ConfigurationSource> sources;
+    /*
+     * Configurations of each source, null for the sources probed one name at a time.
+     */
+    private final List<Map<String, String>> loaded;
+    private final boolean allLoaded;
+
+    private ConfigurationLayers(List<ConfigurationSource> sources, List<Map<String, String>> loaded) {
+        this.sources = sources;
+        this.loaded = loaded;
+        this.allLoaded = !loaded.contains(null);
+    }
+
+    /*
+     * Creates layers probing every source one name at a time.
+     */
+    static ConfigurationLayers probing(List<ConfigurationSource> sources) {
+        return new ConfigurationLayers(sources, Collections.nCopies(sources.size(), null));
+    }
+
+    /*
+     * Creates layers loading every source able to in a single call.
+     */
+    static ConfigurationLayers load(List<ConfigurationSource> sources) {
+        final List<Map<String, String>> loaded = new ArrayList<>(sources.size());
+        for (ConfigurationSource source : sources) {
+            loaded.add(source.loadAll());
+        }
+        return new ConfigurationLayers(sources, loaded);
+    }
+
+    List<ConfigurationSource> sources() {
+        return sources;
+    }
+
+    /*
+     * Whether every source was loaded in bulk, in which case lookups don't need to be cached.
+     */
+    boolean isAllLoaded() {
+        return allLoaded;
+    }
+
+    /*
+     * Gets the value of the configuration from the first source holding it, probing the sources not loaded in bulk.
+     */
+    String get(String name) {
+        for (int i = 0; i < sources.size(); i++) {
+            final Map<String, String> configurations = loaded.get(i);
+            final String value = configurations == null ? sources.get(i).get(name) : configurations.get(name);
+            if (value != null) {
+                return value;
+            }
+        }
+        return null;
+    }
+
+    /*
+     * Gets the value of the configuration from the sources loaded in bulk, up to the first source that isn't.
+     */
+    String getLoaded(String name) {
+        for (Map<String, String> configurations : loaded) {
+            if (configurations == null) {
+                return null;
+            }
+            final String value = configurations.get(name);
+            if (value != null) {
+                return value;
+            }
+        }
+        return null;
+    }
+
+    /*
+     * Adds the names of the configurations of the sources loaded in bulk, up to the first source that isn't.
+     */
+    void addLoadedNames(Set<String> names) {
+        for (Map<String, String> configurations : loaded) {
+            if (configurations == null) {
+                return;
+            }
+            names.addAll(configurations.keySet());
+        }
+    }
+
+    /*
+     * Whether getLoaded and putLoaded may find anything, that is whether the first source was loaded in bulk.
+     */
+    boolean hasLoaded() {
+        return loaded.size() > 0 && loaded.get(0) != null;
+    }
+
+    /*
+     * Passes the configurations of the sources loaded in bulk, up to the first source that isn't, lowest priority
+     * first so that higher priorities overwrite them.
+     */
+    void putLoaded(Map<String, String> destination) {
+        int end = loaded.indexOf(null);
+        for (int i = (end < 0 ? loaded.size() : end) - 1; i >= 0; i--) {
+            destination.putAll(loaded.get(i));
+        }
+    }
+
+    /*
+     * Loads the sources again, returning this instance if none of their configurations changed.
+     */
+    ConfigurationLayers reload() {
+        final ConfigurationLayers reloaded = load(sources);
+        return Objects.equals(loaded, reloaded.loaded) ? this : reloaded;
+    }
+}
@@ -0,0 +1,21 @@
+package com.unisoft.core.util;
+
+/**
+ * Listener of the changes of an {@link UnisoftConfiguration}.
+ * <p>
+ * Listeners are notified in order, on a dedicated thread rather than the thread changing the configuration. Changes
+ * made in quick succession may be reported at once, {@code previous} being the snapshot of the last notification.
+ *
+ * @author omar.H.Ajmi
+ * @since 16/10/2026
+ */
+@FunctionalInterface
+public interface ConfigurationListener {
+    /**
+     * Called once the configuration changed.
+     *
+     * @param previous the snapshot the listeners were last notified of
+     * @param current  the snapshot of the configuration after the change
+     */
+    void onChange(ConfigurationSnapshot previous, ConfigurationSnapshot current);
+}
@@ -0,0 +1,91 @@
+package com.unisoft.core.util;
+
+import java.util.Objects;
+
+/**
+ * A handle to a configuration of an {@link UnisoftConfiguration}, obtained once and read many times.
+ * <p>
+ * The handle keeps the parsed value along with the configuration snapshot it was read from. Reading it checks that
+ * the snapshot is still current, which is a field load, and only looks the configuration up again when it changed, and
+ * parses it again when its value changed. Values that are {@code null} or empty read as the default value.
+ *
+ * @author omar.H.Ajmi
+ * @since 16/10/2026
+ */
+public abstract class ConfigurationProperty {
+    private final UnisoftConfiguration configuration;
+    private final String name;
+    private volatile State state;
+
+    ConfigurationProperty(UnisoftConfiguration configuration, String name) {
+        this.configuration = Objects.requireNonNull(configuration, "'configuration' cannot be null.");
+        this.name = Objects.requireNonNull(name, "'name' cannot be null.");
+    }
+
+    /**
+     * @return the name of the configuration
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * @return the configuration the handle reads from
+     */
+    public UnisoftConfiguration getConfiguration() {
+        return configuration;
+    }
+
+    /*
+     * Gets the state for the current snapshot of the configuration.
+     */
+    final State state() {
+        final ConfigurationSnapshot snapshot = configuration.snapshot();
+        State current = state;
+        if (current != null && current.snapshot == snapshot) {
+            return current;
+        }
+
+        // the snapshot read before the lookup is kept, a change racing with the lookup is seen on the next read.
+        final String value = configuration.get(name);
+        if (current != null && Objects.equals(value, current.value)) {
+            current = new State(snapshot, value, current.primitive, current.object);
+        } else {
+            current = CoreUtil.isNullOrEmpty(value) ? parseDefault(snapshot) : parse(snapshot, value);
+        }
+        state = current;
+        return current;
+    }
+
+    /*
+     * Creates the state of a value that is neither null nor empty.
+     */
+    abstract State parse(ConfigurationSnapshot snapshot, String value);
+
+    /*
+     * Creates the state of the default value.
+     */
+    abstract State parseDefault(ConfigurationSnapshot snapshot);
+
+    @Override
+    public String toString() {
+        return name + "=" + configuration.get(name);
+    }
+
+    /*
+     * Parsed value of the configuration in a given snapshot. Primitive values are held unboxed.
+     */
+    static final class State {
+        final ConfigurationSnapshot snapshot;
+        final String value;
+        final long primitive;
+        final Object object;
+
+        State(ConfigurationSnapshot snapshot, String value, long primitive, Object object) {
+            this.snapshot = snapshot;
+            this.value = value;
+            this.primitive = primitive;
+            this.object = object;
+        }
+    }
+}
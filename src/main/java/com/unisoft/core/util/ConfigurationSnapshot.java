@@ -0,0 +1,277 @@
+package com.unisoft.core.util;
+
+import com.unisoft.core.annotations.Immutable;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * An immutable state of an {@link UnisoftConfiguration}.
+ * <p>
+ * Every change to a configuration publishes a new snapshot with a greater {@link #getVersion() version}, so comparing
+ * versions tells whether anything changed since a snapshot was taken. Values loaded on demand from the system
+ * properties or the environment don't change the version, as they don't change what the configuration returns, and
+ * neither do the names found nowhere, which a snapshot remembers so that probing them again costs a single lookup.
+ * <p>
+ * A snapshot also holds the configurations of the {@link ConfigurationSource sources} loaded in bulk, below the
+ * configurations set on the configuration. Those of sources probed one name at a time only show once looked up
+ * through the configuration, which caches the values found below a probed source, wherever they come from, until the
+ * sources are loaded again.
+ * <p>
+ * The configurations set are held as a base map, shared by all the snapshots derived from it, including those of
+ * {@link UnisoftConfiguration#clone() clones}, and a small map of the changes made since, so that setting a
+ * configuration copies the changes rather than every configuration. Lookups check the changes then the base, and the
+ * changes are merged into a new base once they outgrow half of it.
+ *
+ * @author omar.H.Ajmi
+ * @since 16/10/2026
+ */
+@Immutable
+public final class ConfigurationSnapshot {
+    static final ConfigurationSnapshot EMPTY = new ConfigurationSnapshot(new HashMap<>(), 0, ConfigurationLayers.NONE);
+    /*
+     * Value of the names found nowhere, compared by identity.
+     */
+    @SuppressWarnings("StringOperationCanBeSimplified")
+    static final String NOT_FOUND = new String("<not found>");
+    /*
+     * Value of the changes removing a configuration of the base, compared by identity.
+     */
+    @SuppressWarnings("StringOperationCanBeSimplified")
+    private static final String REMOVED = new String("<removed>");
+    /*
+     * Number of changes kept apart from the base regardless of its size.
+     */
+    private static final int MIN_CHANGES = 8;
+
+    /*
+     * The configurations set on the configuration, as a base and the changes made since, and those probed from the
+     * sources along with the names found nowhere, kept apart so that changes don't copy the probed ones and vice versa.
+     */
+    private final Map<String, String> base;
+    private final Map<String, String> changes;
+    private final Map<String, String> cache;
+    private final long version;
+    private final ConfigurationLayers layers;
+    private final int notFoundCount;
+
+    /*
+     * The map is owned by the snapshot and must not be modified afterwards.
+     */
+    ConfigurationSnapshot(Map<String, String> values, long version, ConfigurationLayers layers) {
+        this(values, Collections.emptyMap(), Collections.emptyMap(), version, layers, 0);
+    }
+
+    private ConfigurationSnapshot(Map<String, String> base, Map<String, String> changes, Map<String, String> cache,
+                                  long version, ConfigurationLayers layers, int notFoundCount) {
+        this.base = base;
+        this.changes = changes;
+        this.cache = cache;
+        this.version = version;
+        this.layers = layers;
+        this.notFoundCount = notFoundCount;
+    }
+
+    /**
+     * @return the version of the snapshot, increasing with every change of the configuration
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    /**
+     * Gets the value of the configuration.
+     *
+     * @param name Name of the configuration.
+     * @return Value of the configuration if found, otherwise {@code null}.
+     */
+    public String get(String name) {
+        final String value = lookup(name);
+        if (value == null) {
+            return layers.getLoaded(name);
+        }
+        return value == NOT_FOUND ? null : value;
+    }
+
+    /*
+     * Gets the value of the configuration set or probed, NOT_FOUND if it is known to be found nowhere, null if it is
+     * unknown.
+     */
+    String lookup(String name) {
+        final String value = getSet(name);
+        return value == null ? cache.get(name) : value;
+    }
+
+    /*
+     * Whether the configuration was set, rather than probed or loaded from the sources.
+     */
+    boolean isSet(String name) {
+        return getSet(name) != null;
+    }
+
+    private String getSet(String name) {
+        final String value = changes.get(name);
+        if (value == null) {
+            return base.get(name);
+        }
+        return value == REMOVED ? null : value;
+    }
+
+    ConfigurationLayers layers() {
+        return layers;
+    }
+
+    /**
+     * Determines if the configuration exists.
+     *
+     * @param name Name of the configuration.
+     * @return True if the configuration exists, otherwise false.
+     */
+    public boolean contains(String name) {
+        return get(name) != null;
+    }
+
+    /**
+     * @return an unmodifiable map of the configurations of the snapshot
+     */
+    public Map<String, String> asMap() {
+        if (cache.size() == notFoundCount && !layers.hasLoaded()) {
+            return Collections.unmodifiableMap(changes.isEmpty() ? base : copyValues());
+        }
+        final Map<String, String> merged = new HashMap<>();
+        layers.putLoaded(merged);
+        merged.putAll(cache);
+        if (notFoundCount > 0) {
+            merged.values().removeIf(value -> value == NOT_FOUND);
+        }
+        merged.putAll(changes.isEmpty() ? base : copyValues());
+        return Collections.unmodifiableMap(merged);
+    }
+
+    /*
+     * Adds the names of the configurations that may differ from one snapshot to the next: those set and those of the
+     * sources loaded in bulk. Probed configurations are left out, as probing doesn't change what the configuration
+     * returns.
+     */
+    void addChangeableNames(Set<String> names) {
+        names.addAll(base.keySet());
+        names.addAll(changes.keySet());
+        layers.addLoadedNames(names);
+    }
+
+    /*
+     * Copies the configurations set, to be changed and published as a new snapshot.
+     */
+    Map<String, String> copyValues() {
+        return merge(base, changes);
+    }
+
+    /*
+     * Whether the configurations set are the given ones.
+     */
+    boolean hasValues(Map<String, String> values) {
+        return (changes.isEmpty() ? base : copyValues()).equals(values);
+    }
+
+    /*
+     * Adds a value looked up in the sources, or NOT_FOUND, keeping the version.
+     */
+    ConfigurationSnapshot cache(String name, String value) {
+        final Map<String, String> copy = new HashMap<>(cache);
+        copy.put(name, value);
+        return new ConfigurationSnapshot(base, changes, copy, version, layers,
+                value == NOT_FOUND ? notFoundCount + 1 : notFoundCount);
+    }
+
+    /*
+     * Forgets a probed value, keeping the version.
+     */
+    ConfigurationSnapshot uncache(String name) {
+        final Map<String, String> copy = new HashMap<>(cache);
+        final String value = copy.remove(name);
+        return new ConfigurationSnapshot(base, changes, copy, version, layers,
+                value == NOT_FOUND ? notFoundCount - 1 : notFoundCount);
+    }
+
+    /*
+     * Forgets the names found nowhere, keeping the version.
+     */
+    ConfigurationSnapshot withoutNotFound() {
+        return notFoundCount == 0
+                ? this
+                : new ConfigurationSnapshot(base, changes, probedCache(), version, layers, 0);
+    }
+
+    /*
+     * Replaces the sources, forgetting the cached values, which may come from the configurations replaced.
+     */
+    ConfigurationSnapshot withLayers(ConfigurationLayers layers, long version) {
+        return new ConfigurationSnapshot(base, changes, Collections.emptyMap(), version, layers, 0);
+    }
+
+    /*
+     * Replaces the configurations set, the map being owned by the new snapshot, forgetting the names found nowhere.
+     */
+    ConfigurationSnapshot withValues(Map<String, String> values, long version) {
+        return new ConfigurationSnapshot(values, Collections.emptyMap(), probedCache(), version, layers, 0);
+    }
+
+    ConfigurationSnapshot with(String name, String value, long version) {
+        return withChange(name, value, version);
+    }
+
+    ConfigurationSnapshot without(String name, long version) {
+        return withChange(name, base.containsKey(name) ? REMOVED : null, version);
+    }
+
+    /*
+     * Copies the changes along with the new one, a null value dropping the change, sharing the base until the changes
+     * outgrow half of it.
+     */
+    private ConfigurationSnapshot withChange(String name, String value, long version) {
+        final Map<String, String> copy = new HashMap<>(changes);
+        if (value == null) {
+            copy.remove(name);
+        } else {
+            copy.put(name, value);
+        }
+        if (copy.size() > MIN_CHANGES && copy.size() > base.size() / 2) {
+            return withValues(merge(base, copy), version);
+        }
+        return new ConfigurationSnapshot(base, copy, probedCache(), version, layers, 0);
+    }
+
+    private static Map<String, String> merge(Map<String, String> base, Map<String, String> changes) {
+        final Map<String, String> merged = new HashMap<>(base);
+        for (Map.Entry<String, String> change : changes.entrySet()) {
+            if (change.getValue() == REMOVED) {
+                merged.remove(change.getKey());
+            } else {
+                merged.put(change.getKey(), change.getValue());
+            }
+        }
+        return merged;
+    }
+
+    /*
+     * The cache without the names found nowhere.
+     */
+    private Map<String, String> probedCache() {
+        if (notFoundCount == 0) {
+            return cache;
+        }
+        if (notFoundCount == cache.size()) {
+            return Collections.emptyMap();
+        }
+        final Map<String, String> copy = new HashMap<>(cache);
+        copy.values().removeIf(value -> value == NOT_FOUND);
+        return copy;
+    }
+
+    @Override
+    public String toString() {
+        return "ConfigurationSnapshot{version=" + version + ", values=" + asMap() + "}";
+    }
+}
@@ -0,0 +1,54 @@
+package com.unisoft.core.util;
+
+import java.util.Map;
+
+/**
+ * A source of configuration values, layered with other sources by {@link UnisoftConfiguration#UnisoftConfiguration(
+ * java.util.List)}.
+ * <p>
+ * Sources able to list their configurations implement {@link #loadAll()}, which is called once when the configuration
+ * is created or refreshed, so that lookups never reach the source itself. Other sources are probed one name at a
+ * time, on the first lookup of each name. {@link ConfigurationSources} provides the common sources, and
+ * {@link FileConfigurationSource} a file reloaded when it changes.
+ *
+ * @author omar.H.Ajmi
+ * @since 16/10/2026
+ */
+@FunctionalInterface
+public interface ConfigurationSource {
+    /**
+     * Gets the value of a configuration.
+     *
+     * @param name Name of the configuration.
+     * @return Value of the configuration if found, otherwise {@code null}.
+     */
+    String get(String name);
+
+    /**
+     * Loads all the configurations of the source at once.
+     *
+     * @return the names and values of all the configurations of the source, or {@code null} if the source cannot list
+     * them and must be probed one name at a time
+     */
+    default Map<String, String> loadAll() {
+        return null;
+    }
+
+    /**
+     * Registers a callback to run whenever the configurations of the source change, making the configurations using
+     * the source load it again. Sources that don't detect their changes ignore it, the default.
+     *
+     * @param listener the callback, which may run on any thread
+     */
+    default void addChangeListener(Runnable listener) {
+    }
+
+    /**
+     * Unregisters a callback registered with {@link #addChangeListener(Runnable)}. Sources that don't detect their
+     * changes ignore it, the default.
+     *
+     * @param listener the callback
+     */
+    default void removeChangeListener(Runnable listener) {
+    }
+}
@@ -0,0 +1,135 @@
+package com.unisoft.core.util;
+
+import com.unisoft.core.util.log.LogUtil;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Properties;
+
+/**
+ * Common {@link ConfigurationSource configuration sources}.
+ *
+ * @author omar.H.Ajmi
+ * @since 16/10/2026
+ */
+public final class ConfigurationSources {
+    private static final Logger LOGGER = LoggerFactory.getLogger(ConfigurationSources.class);
+
+    private ConfigurationSources() {
+    }
+
+    /**
+     * @return the default layers: the system properties, then the environment variables
+     */
+    public static List<ConfigurationSource> defaults() {
+        return Arrays.asList(systemProperties(), environment());
+    }
+
+    /**
+     * @return a source reading the system properties, as they are when loaded
+     */
+    public static ConfigurationSource systemProperties() {
+        return new SystemPropertiesSource();
+    }
+
+    /**
+     * @return a source reading the environment variables
+     */
+    public static ConfigurationSource environment() {
+        return new MapSource(System.getenv());
+    }
+
+    /**
+     * Creates a source holding the given configurations.
+     *
+     * @param configurations the names and values of the configurations, copied
+     * @return the source
+     * @throws NullPointerException if {@code configurations} is {@code null}
+     */
+    public static ConfigurationSource fromMap(Map<String, String> configurations) {
+        Objects.requireNonNull(configurations, "'configurations' cannot be null.");
+        return new MapSource(Collections.unmodifiableMap(new HashMap<>(configurations)));
+    }
+
+    /**
+     * Creates a source holding the configurations of a file of {@code key=value} lines, read once. The file is read
+     * with {@link Properties#load(Reader)} in UTF-8: lines starting with {@code #} or {@code !} are comments, and
+     * {@code key: value} lines are accepted too. {@link FileConfigurationSource#watch(Path)} creates a source reading
+     * the file again whenever it changes.
+     *
+     * @param path the path of the file
+     * @return the source
+     * @throws NullPointerException if {@code path} is {@code null}
+     * @throws UncheckedIOException if the file cannot be read
+     */
+    public static ConfigurationSource fromFile(Path path) {
+        Objects.requireNonNull(path, "'path' cannot be null.");
+        try {
+            return new MapSource(readFile(path));
+        } catch (IOException e) {
+            throw LogUtil.logExceptionAsError(LOGGER, new UncheckedIOException(e));
+        }
+    }
+
+    static Map<String, String> readFile(Path path) throws IOException {
+        final Properties properties = new Properties();
+        try (Reader reader = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+            properties.load(reader);
+        }
+        final Map<String, String> configurations = new HashMap<>();
+        for (String name : properties.stringPropertyNames()) {
+            configurations.put(name, properties.getProperty(name));
+        }
+        return Collections.unmodifiableMap(configurations);
+    }
+
+    /*
+     * Source backed by an unmodifiable map.
+     */
+    private static final class MapSource implements ConfigurationSource {
+        private final Map<String, String> configurations;
+
+        MapSource(Map<String, String> configurations) {
+            this.configurations = configurations;
+        }
+
+        @Override
+        public String get(String name) {
+            return configurations.get(name);
+        }
+
+        @Override
+        public Map<String, String> loadAll() {
+            return configurations;
+        }
+    }
+
+    private static final class SystemPropertiesSource implements ConfigurationSource {
+        @Override
+        public String get(String name) {
+            return System.getProperty(name);
+        }
+
+        @Override
+        public Map<String, String> loadAll() {
+            final Properties properties = System.getProperties();
+            final Map<String, String> configurations = new HashMap<>();
+            for (String name : properties.stringPropertyNames()) {
+                configurations.put(name, properties.getProperty(name));
+            }
+            return configurations;
+        }
+    }
+}
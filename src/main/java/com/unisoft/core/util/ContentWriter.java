@@ -0,0 +1,16 @@
+package com.unisoft.core.util;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * contract used to produce content by writing it to an {@link OutputStream}
+ *
+ * @author omar.H.Ajmi
+ * @since 16/10/2026
+ */
+@FunctionalInterface
+public interface ContentWriter {
+
+    void write(OutputStream outputStream) throws IOException;
+}
@@ -5,10 +5,14 @@ import com.unisoft.core.util.log.LogUtil;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.NoSuchElementException;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.function.BiConsumer;
+import java.util.function.Supplier;
 
 /**
  * {@code Context} offers a means of passing arbitrary data (key-value pairs) to any data context.
@@ -27,10 +31,28 @@ public class Context {
      * Signifies that no data needs to be passed to any data context.
      */
     public static final Context NONE = new Context(null, null, null);
+    /*
+     * Returned by findLocal when a node doesn't hold the key, null being a legitimate value.
+     */
+    static final Object MISSING = new Object();
+    private static final Logger LOGGER = LoggerFactory.getLogger(Context.class);
+    /*
+     * Number of nodes above the most recent snapshot past which addData flattens them into a new snapshot. Read from
+     * a system property rather than the global configuration, which would tie the initialization of both classes.
+     */
+    /*
+     * Number of entries up to which forEach checks each entry against the more recent nodes rather than recording
+     * the keys passed in a table, so that iterating small contexts doesn't allocate.
+     */
+    private static final int SCAN_LIMIT = 16;
+    private static final int COMPACTION_DEPTH = Math.max(2, Integer.getInteger("unisoft.context.compactionDepth", 16));
     private final Context parent;
     private final Object key;
     private final Object value;
-    Logger log = LoggerFactory.getLogger(Context.class);
+    /*
+     * Number of nodes from this one to the most recent snapshot, excluded. Zero for snapshots.
+     */
+    private final int depth;
 
     /**
      * Constructs a new {@link Context} object.
@@ -47,12 +69,18 @@ public class Context {
         this.parent = null;
         this.key = Objects.requireNonNull(key, "'key' cannot be null.");
         this.value = value;
+        this.depth = 1;
     }
 
     private Context(Context parent, Object key, Object value) {
+        this(parent, key, value, parent == null ? 1 : parent.depth + 1);
+    }
+
+    private Context(Context parent, Object key, Object value, int depth) {
         this.parent = parent;
         this.key = key;
         this.value = value;
+        this.depth = depth;
     }
 
     /**
@@ -72,20 +100,25 @@ public class Context {
             throw new IllegalArgumentException("Key value map cannot be null or empty");
         }
 
-        Context context = null;
-        for (Map.Entry<Object, Object> entry : keyValues.entrySet()) {
-            if (context == null) {
-                context = new Context(entry.getKey(), entry.getValue());
-            } else {
-                context = context.addData(entry.getKey(), entry.getValue());
-            }
-        }
-        return context;
+        return NONE.addAll(keyValues);
+    }
+
+    /**
+     * Creates a {@link Builder} collecting key-value pairs into a single {@link Context} node.
+     *
+     * @return a new builder
+     */
+    public static Builder builder() {
+        return new Builder();
     }
 
     /**
      * Adds a new immutable {@link Context} object with the specified key-value pair to
      * the existing {@link Context} chain.
+     * <p>
+     * Once the chain grows past a depth threshold, configurable through the {@code unisoft.context.compactionDepth}
+     * system property, the most recent pairs are flattened into a snapshot in which lookups take constant time.
+     * Snapshots of comparable sizes are merged, so that a chain holds a logarithmic number of them.
      *
      * <p><strong>Code samples</strong></p>
      * <p>
@@ -98,13 +131,53 @@ public class Context {
      */
     public Context addData(Object key, Object value) {
         if (key == null) {
-            LogUtil.logExceptionAsError(log, () -> {
+            LogUtil.logExceptionAsError(LOGGER, () -> {
                 throw new IllegalArgumentException("key cannot be null");
             });
         }
+        if (depth >= COMPACTION_DEPTH) {
+            return flatten(this, key, value);
+        }
         return new Context(this, key, value);
     }
 
+    /**
+     * Adds a new immutable {@link Context} object with the specified typed key-value pair to the existing
+     * {@link Context} chain. Same as {@link #addData(Object, Object)}, with the value type checked at compile time.
+     *
+     * @param key   The key with which the specified value should be associated.
+     * @param value The value to be associated with the specified key.
+     * @param <T>   The type of the value.
+     * @return the new {@link Context} object containing the specified pair added to the set of pairs.
+     * @throws IllegalArgumentException If {@code key} is {@code null}.
+     */
+    public <T> Context addData(ContextKey<T> key, T value) {
+        return addData((Object) key, value);
+    }
+
+    /**
+     * Adds all the key-value pairs of the input {@link Map} to the existing {@link Context} chain, as a single node
+     * rather than one node per pair. Lookups behave as if the pairs had been added one by one with
+     * {@link #addData(Object, Object)}, in the map's iteration order.
+     *
+     * @param keyValues The key value pairs to add.
+     * @return the new {@link Context} object containing the specified pairs, or this one if {@code keyValues} is
+     * empty.
+     * @throws NullPointerException     If {@code keyValues} is {@code null}.
+     * @throws IllegalArgumentException If {@code keyValues} contains a {@code null} key.
+     */
+    public Context addAll(Map<?, ?> keyValues) {
+        Objects.requireNonNull(keyValues, "'keyValues' cannot be null.");
+        final Object[] keys = new Object[keyValues.size()];
+        final Object[] values = new Object[keys.length];
+        int size = 0;
+        for (Map.Entry<?, ?> entry : keyValues.entrySet()) {
+            keys[size] = requireKey(entry.getKey());
+            values[size++] = entry.getValue();
+        }
+        return compact(this, keys, values, size);
+    }
+
     /**
      * Scans the linked-list of {@link Context} objects looking for one with the specified key.
      * Note that the first key found, i.e. the most recently added, will be returned.
@@ -119,16 +192,12 @@ public class Context {
      */
     public Optional<Object> getData(Object key) {
         if (key == null) {
-            LogUtil.logExceptionAsError(log, () -> {
+            LogUtil.logExceptionAsError(LOGGER, () -> {
                 throw new IllegalArgumentException("key cannot be null");
             });
         }
-        for (Context c = this; c != null; c = c.parent) {
-            if (c.key.equals(key)) {
-                return Optional.of(c.value);
-            }
-        }
-        return Optional.empty();
+        Object found = find(key);
+        return found == MISSING ? Optional.empty() : Optional.of(found);
     }
 
     /**
@@ -143,6 +212,64 @@ public class Context {
         return this.getData(key).map(type::cast);
     }
 
+    /**
+     * Scans the linked-list of {@link Context} objects looking for the value of the specified typed key.
+     * Unlike {@link #getData(Object, Class)}, this doesn't allocate.
+     *
+     * @param key The key to search for.
+     * @param <T> The type of the value.
+     * @return The value of the specified key, which may be {@code null} if it was added as such.
+     * @throws IllegalArgumentException If {@code key} is {@code null}.
+     * @throws NoSuchElementException   If the context holds no value for {@code key}.
+     * @throws ClassCastException       If the value, added through {@link #addData(Object, Object)}, is not of the
+     *                                  key's type.
+     */
+    public <T> T get(ContextKey<T> key) {
+        Object found = find(requireKey(key));
+        if (found == MISSING) {
+            throw LogUtil.logExceptionAsError(LOGGER, new NoSuchElementException("No value for key " + key + "."));
+        }
+        return key.cast(found);
+    }
+
+    /**
+     * Scans the linked-list of {@link Context} objects looking for the value of the specified typed key, without
+     * allocating.
+     *
+     * @param key          The key to search for.
+     * @param defaultValue The value to return if the context holds no value for {@code key}.
+     * @param <T>          The type of the value.
+     * @return The value of the specified key, or {@code defaultValue} if there is none.
+     * @throws IllegalArgumentException If {@code key} is {@code null}.
+     * @throws ClassCastException       If the value, added through {@link #addData(Object, Object)}, is not of the
+     *                                  key's type.
+     */
+    public <T> T getOrDefault(ContextKey<T> key, T defaultValue) {
+        Object found = find(requireKey(key));
+        return found == MISSING ? defaultValue : key.cast(found);
+    }
+
+    /**
+     * Same as {@link #getOrDefault(ContextKey, Object)} with a {@code null} default value.
+     *
+     * @param key The key to search for.
+     * @param <T> The type of the value.
+     * @return The value of the specified key, or {@code null} if there is none.
+     * @throws IllegalArgumentException If {@code key} is {@code null}.
+     * @throws ClassCastException       If the value, added through {@link #addData(Object, Object)}, is not of the
+     *                                  key's type.
+     */
+    public <T> T getOrNull(ContextKey<T> key) {
+        return getOrDefault(key, null);
+    }
+
+    private static <K> K requireKey(K key) {
+        if (key == null) {
+            throw LogUtil.logExceptionAsError(LOGGER, new IllegalArgumentException("key cannot be null"));
+        }
+        return key;
+    }
+
     /**
      * Scans the linked-list of {@link Context} objects populating a {@link Map} with the values of the context.
      *
@@ -153,28 +280,546 @@ public class Context {
      * @return A map containing all values of the context linked-list.
      */
     public Map<Object, Object> getValues() {
-        return getValuesHelper(new HashMap<>());
+        final Map<Object, Object> values = new HashMap<>();
+        // the map holds the keys passed so far, which shadow the older entries of the same key.
+        final BiConsumer<Object, Object> visible = (key, value) -> {
+            if (!values.containsKey(key)) {
+                values.put(key, value);
+            }
+        };
+        for (Context c = this; c != null; c = c.parent) {
+            c.forEachLocal(visible);
+        }
+        return values;
+    }
+
+    /**
+     * Passes every visible key-value pair of the context to the consumer, i.e. the most recent value of each key,
+     * from the most recently added pair to the oldest. Unlike {@link #getValues()}, no map of the values is built:
+     * contexts of a few entries are iterated without allocating, larger ones record the keys passed in a table
+     * growing with the number of entries.
+     *
+     * @param consumer The consumer of the key-value pairs.
+     * @throws NullPointerException If {@code consumer} is {@code null}.
+     */
+    public void forEach(BiConsumer<Object, Object> consumer) {
+        Objects.requireNonNull(consumer, "'consumer' cannot be null.");
+        if (this == NONE) {
+            return;
+        }
+        int entries = 0;
+        for (Context c = this; c != null && entries <= SCAN_LIMIT; c = c.parent) {
+            entries += c.localSize();
+        }
+        if (entries <= SCAN_LIMIT) {
+            for (Context c = this; c != null; c = c.parent) {
+                c.forEachVisibleLocal(this, consumer);
+            }
+            return;
+        }
+        // the table holds the keys passed so far, which shadow the older entries of the same key.
+        final EntryTable passed = new EntryTable(16);
+        final BiConsumer<Object, Object> visible = (key, value) -> {
+            if (passed.putIfAbsent(key, value)) {
+                consumer.accept(key, value);
+            }
+        };
+        for (Context c = this; c != null; c = c.parent) {
+            c.forEachLocal(visible);
+        }
+    }
+
+    /*
+     * Scans the chain for the most recent value of the key, returning MISSING if none of the nodes holds it.
+     */
+    Object find(Object key) {
+        for (Context c = this; c != null; c = c.parent) {
+            Object found = c.findLocal(key);
+            if (found != MISSING) {
+                return found;
+            }
+        }
+        return MISSING;
+    }
+
+    /*
+     * Creates a node exposing the entries of a reactor context, looked up lazily.
+     */
+    static Context view(reactor.util.context.Context reactorContext) {
+        return reactorContext.isEmpty() ? NONE : new ReactorContextNode(reactorContext);
+    }
+
+    /*
+     * Creates a node holding the entries of the parentless node returned by the loader, which is called once, when the
+     * node is first looked up.
+     */
+    static Context lazy(Context parent, Supplier<Context> loader) {
+        return new LazyContext(parent, loader);
+    }
+
+    /*
+     * Creates a single node holding all the given entries, later entries shadowing earlier ones with the same key.
+     * The arrays are owned by the created node.
+     */
+    static Context compact(Context parent, Object[] keys, Object[] values, int size) {
+        return size == 0 ? parent : new CompactContext(parent, keys, values, size);
+    }
+
+    /*
+     * Flattens the given entry and the nodes above the most recent snapshot into a new snapshot, merging it with the
+     * following snapshots while they aren't much larger. Snapshot sizes hence grow geometrically down the chain, and
+     * each entry is copied a logarithmic number of times.
+     */
+    private static Context flatten(Context context, Object key, Object value) {
+        final EntryTable table = new EntryTable(context.depth * 2);
+        table.putIfAbsent(key, value);
+        Context c = context;
+        for (; c != null && c.depth > 0; c = c.parent) {
+            c.forEachLocal(table::putIfAbsent);
+        }
+        while (c != null && ((CompactContext) c).size <= table.size * 2) {
+            c.forEachLocal(table::putIfAbsent);
+            c = c.parent;
+        }
+        return table.toSnapshot(c);
     }
 
-    private Map<Object, Object> getValuesHelper(Map<Object, Object> values) {
+    /*
+     * Gets the value this node holds for the key, or MISSING. Parents are not searched.
+     */
+    Object findLocal(Object key) {
+        return this.key != null && (this.key == key || this.key.equals(key)) ? value : MISSING;
+    }
+
+    /*
+     * Passes the entries this node holds to the consumer, most recent first. Parents are not visited.
+     */
+    void forEachLocal(BiConsumer<Object, Object> consumer) {
         if (key != null) {
-            values.putIfAbsent(key, value);
+            consumer.accept(key, value);
+        }
+    }
+
+    /*
+     * Number of entries this node holds, including those shadowed within the node.
+     */
+    int localSize() {
+        return key == null ? 0 : 1;
+    }
+
+    /*
+     * Passes the entries this node holds that are not shadowed, neither within the node nor by the nodes between top
+     * and this one, to the consumer, most recent first.
+     */
+    void forEachVisibleLocal(Context top, BiConsumer<Object, Object> consumer) {
+        if (key != null && !top.isShadowed(key, this)) {
+            consumer.accept(key, value);
+        }
+    }
+
+    /*
+     * Whether one of the nodes from this one, included, to the given node, excluded, holds the key.
+     */
+    boolean isShadowed(Object key, Context node) {
+        for (Context c = this; c != node; c = c.parent) {
+            if (c.findLocal(key) != MISSING) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /*
+     * Appends the entries this node holds in the toString format, most recent first, and returns the number of
+     * "context{" opened.
+     */
+    int appendLocal(StringBuilder stringBuilder, boolean first) {
+        if (key == null) {
+            return 0;
         }
+        appendEntry(stringBuilder, first, key, value);
+        return 1;
+    }
 
-        return (parent == null) ? values : parent.getValuesHelper(values);
+    static void appendEntry(StringBuilder stringBuilder, boolean first, Object key, Object value) {
+        if (!first) {
+            stringBuilder.append(", parent=");
+        }
+        stringBuilder.append("context{")
+                .append("key=").append(key)
+                .append(", value=").append(value);
     }
 
     @Override
     public String toString() {
-        final StringBuilder stringBuilder = new StringBuilder()
-                .append("context{")
-                .append("key=").append(this.key.toString())
-                .append(", value=").append(this.value.toString());
-        if (Objects.isNull(this.parent)) {
+        final StringBuilder stringBuilder = new StringBuilder();
+        int opened = 0;
+        for (Context c = this; c != null; c = c.parent) {
+            opened += c.appendLocal(stringBuilder, opened == 0);
+        }
+        if (opened == 0) {
+            return "context{}";
+        }
+        for (int i = 0; i < opened; i++) {
             stringBuilder.append("}");
-        } else {
-            stringBuilder.append(", parent=").append(this.parent.toString()).append("}");
         }
         return stringBuilder.toString();
     }
+
+    /**
+     * Collects key-value pairs into a single {@link Context} node. Lookups in the built context behave as if the
+     * pairs had been added one by one with {@link #addData(Object, Object)}, in the order they were put.
+     * <p>
+     * A builder is not thread safe, and is not affected by the contexts it builds.
+     */
+    public static final class Builder {
+        private Object[] keys = new Object[8];
+        private Object[] values = new Object[8];
+        private int size;
+
+        private Builder() {
+        }
+
+        /**
+         * Adds a key-value pair.
+         *
+         * @param key   The key with which the specified value should be associated.
+         * @param value The value to be associated with the specified key.
+         * @return this builder
+         * @throws IllegalArgumentException If {@code key} is {@code null}.
+         */
+        public Builder put(Object key, Object value) {
+            if (size == keys.length) {
+                keys = Arrays.copyOf(keys, size * 2);
+                values = Arrays.copyOf(values, size * 2);
+            }
+            keys[size] = requireKey(key);
+            values[size++] = value;
+            return this;
+        }
+
+        /**
+         * Adds a typed key-value pair.
+         *
+         * @param key   The key with which the specified value should be associated.
+         * @param value The value to be associated with the specified key.
+         * @param <T>   The type of the value.
+         * @return this builder
+         * @throws IllegalArgumentException If {@code key} is {@code null}.
+         */
+        public <T> Builder put(ContextKey<T> key, T value) {
+            return put((Object) key, value);
+        }
+
+        /**
+         * @return a context holding the pairs put so far, {@link Context#NONE} if there are none
+         */
+        public Context build() {
+            return build(NONE);
+        }
+
+        /**
+         * Adds the pairs put so far on top of the given context.
+         *
+         * @param parent The context to add the pairs to.
+         * @return the new context, or {@code parent} if no pairs were put
+         * @throws NullPointerException If {@code parent} is {@code null}.
+         */
+        public Context build(Context parent) {
+            Objects.requireNonNull(parent, "'parent' cannot be null.");
+            return compact(parent, Arrays.copyOf(keys, size), Arrays.copyOf(values, size), size);
+        }
+    }
+
+    /*
+     * Node holding several entries in insertion order. Lookups behave as if each entry had been added with addData:
+     * small nodes are scanned from the most recent entry, larger ones are indexed by an open-addressed hash table in
+     * which a key points at its most recent entry.
+     */
+    private static final class CompactContext extends Context {
+        private static final int INDEX_THRESHOLD = 8;
+
+        private final Object[] keys;
+        private final Object[] values;
+        private final int size;
+        private final int[] index;
+
+        CompactContext(Context parent, Object[] keys, Object[] values, int size) {
+            super(parent, null, null);
+            this.keys = keys;
+            this.values = values;
+            this.size = size;
+            this.index = size > INDEX_THRESHOLD ? buildIndex(keys, size) : null;
+        }
+
+        /*
+         * Creates a snapshot, whose keys are distinct and whose parent is either null or another snapshot.
+         */
+        CompactContext(Context parent, Object[] keys, Object[] values, int size, int[] index) {
+            super(parent, null, null, 0);
+            this.keys = keys;
+            this.values = values;
+            this.size = size;
+            this.index = index;
+        }
+
+        private static int[] buildIndex(Object[] keys, int size) {
+            final int[] index = new int[EntryTable.tableSize(size)];
+            for (int i = size - 1; i >= 0; i--) {
+                int slot = EntryTable.slot(keys, index, keys[i]);
+                if (index[slot] == 0) {
+                    index[slot] = i + 1;
+                }
+            }
+            return index;
+        }
+
+        @Override
+        Object findLocal(Object key) {
+            if (index != null) {
+                int entry = index[EntryTable.slot(keys, index, key)];
+                return entry == 0 ? MISSING : values[entry - 1];
+            }
+            for (int i = size - 1; i >= 0; i--) {
+                if (keys[i] == key || keys[i].equals(key)) {
+                    return values[i];
+                }
+            }
+            return MISSING;
+        }
+
+        @Override
+        void forEachLocal(BiConsumer<Object, Object> consumer) {
+            for (int i = size - 1; i >= 0; i--) {
+                consumer.accept(keys[i], values[i]);
+            }
+        }
+
+        @Override
+        int localSize() {
+            return size;
+        }
+
+        @Override
+        void forEachVisibleLocal(Context top, BiConsumer<Object, Object> consumer) {
+            for (int i = size - 1; i >= 0; i--) {
+                if (isMostRecentLocal(i) && !top.isShadowed(keys[i], this)) {
+                    consumer.accept(keys[i], values[i]);
+                }
+            }
+        }
+
+        private boolean isMostRecentLocal(int entry) {
+            final Object key = keys[entry];
+            if (index != null) {
+                return index[EntryTable.slot(keys, index, key)] == entry + 1;
+            }
+            for (int i = entry + 1; i < size; i++) {
+                if (keys[i] == key || keys[i].equals(key)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        @Override
+        int appendLocal(StringBuilder stringBuilder, boolean first) {
+            for (int i = size - 1; i >= 0; i--) {
+                appendEntry(stringBuilder, first && i == size - 1, keys[i], values[i]);
+            }
+            return size;
+        }
+    }
+
+    /*
+     * Open-addressed hash table of distinct entries, used to build snapshots. Slots hold entry indexes plus one, zero
+     * marking an empty slot, and entries are kept in insertion order.
+     */
+    private static final class EntryTable {
+        private Object[] keys;
+        private Object[] values;
+        private int[] index;
+        private int size;
+
+        EntryTable(int expectedSize) {
+            this.keys = new Object[expectedSize];
+            this.values = new Object[expectedSize];
+            this.index = new int[tableSize(expectedSize)];
+        }
+
+        static int tableSize(int size) {
+            // keeps the load factor at or below one half.
+            return Integer.highestOneBit(Math.max(4, size) * 2) * 2;
+        }
+
+        static int slot(Object[] keys, int[] index, Object key) {
+            final int mask = index.length - 1;
+            final int hash = key.hashCode();
+            int slot = (hash ^ (hash >>> 16)) & mask;
+            int entry;
+            while ((entry = index[slot]) != 0 && keys[entry - 1] != key && !keys[entry - 1].equals(key)) {
+                slot = (slot + 1) & mask;
+            }
+            return slot;
+        }
+
+        /*
+         * Returns whether the entry was added, i.e. the key was absent.
+         */
+        boolean putIfAbsent(Object key, Object value) {
+            int slot = slot(keys, index, key);
+            if (index[slot] != 0) {
+                return false;
+            }
+            if (size == keys.length) {
+                grow();
+                slot = slot(keys, index, key);
+            }
+            keys[size] = key;
+            values[size] = value;
+            index[slot] = ++size;
+            return true;
+        }
+
+        /*
+         * Entries were inserted most recent first, the created node expects them oldest first.
+         */
+        Context toSnapshot(Context parent) {
+            final Object[] orderedKeys = new Object[size];
+            final Object[] orderedValues = new Object[size];
+            for (int i = 0; i < size; i++) {
+                orderedKeys[i] = keys[size - 1 - i];
+                orderedValues[i] = values[size - 1 - i];
+            }
+            return size > CompactContext.INDEX_THRESHOLD
+                    ? new CompactContext(parent, orderedKeys, orderedValues, size, rebuildIndex(orderedKeys))
+                    : new CompactContext(parent, orderedKeys, orderedValues, size, null);
+        }
+
+        private int[] rebuildIndex(Object[] orderedKeys) {
+            final int[] ordered = new int[tableSize(size)];
+            for (int i = 0; i < size; i++) {
+                ordered[slot(orderedKeys, ordered, orderedKeys[i])] = i + 1;
+            }
+            return ordered;
+        }
+
+        private void grow() {
+            keys = Arrays.copyOf(keys, size * 2);
+            values = Arrays.copyOf(values, size * 2);
+            final int[] grown = new int[tableSize(size * 2)];
+            for (int i = 0; i < size; i++) {
+                grown[slot(keys, grown, keys[i])] = i + 1;
+            }
+            index = grown;
+        }
+    }
+
+    /*
+     * Node delegating to a parentless node loaded on first use.
+     */
+    private static final class LazyContext extends Context {
+        /*
+         * The loader until the node is loaded, then the loaded node. A single field, so that a thread seeing the
+         * loader cleared also sees the loaded node.
+         */
+        private volatile Object state;
+
+        LazyContext(Context parent, Supplier<Context> loader) {
+            super(parent, null, null);
+            this.state = loader;
+        }
+
+        @SuppressWarnings("unchecked")
+        private Context loaded() {
+            Object current = state;
+            if (current instanceof Context) {
+                return (Context) current;
+            }
+            synchronized (this) {
+                current = state;
+                if (current instanceof Context) {
+                    return (Context) current;
+                }
+                final Context loaded = ((Supplier<Context>) current).get();
+                state = loaded;
+                return loaded;
+            }
+        }
+
+        @Override
+        Object findLocal(Object key) {
+            return loaded().findLocal(key);
+        }
+
+        @Override
+        void forEachLocal(BiConsumer<Object, Object> consumer) {
+            loaded().forEachLocal(consumer);
+        }
+
+        @Override
+        int localSize() {
+            return loaded().localSize();
+        }
+
+        @Override
+        void forEachVisibleLocal(Context top, BiConsumer<Object, Object> consumer) {
+            final Context current = loaded();
+            // the loaded node is not part of the chain, it only drops the entries it shadows itself.
+            current.forEachVisibleLocal(current, (key, value) -> {
+                if (!top.isShadowed(key, this)) {
+                    consumer.accept(key, value);
+                }
+            });
+        }
+
+        @Override
+        int appendLocal(StringBuilder stringBuilder, boolean first) {
+            return loaded().appendLocal(stringBuilder, first);
+        }
+    }
+
+    /*
+     * Node delegating to a reactor context, which is immutable and does not contain null keys nor values.
+     */
+    private static final class ReactorContextNode extends Context {
+        private final reactor.util.context.Context reactorContext;
+
+        ReactorContextNode(reactor.util.context.Context reactorContext) {
+            super(null, null, null);
+            this.reactorContext = reactorContext;
+        }
+
+        @Override
+        Object findLocal(Object key) {
+            return reactorContext.getOrDefault(key, MISSING);
+        }
+
+        @Override
+        void forEachLocal(BiConsumer<Object, Object> consumer) {
+            reactorContext.stream().forEach(entry -> consumer.accept(entry.getKey(), entry.getValue()));
+        }
+
+        @Override
+        int localSize() {
+            return reactorContext.size();
+        }
+
+        @Override
+        void forEachVisibleLocal(Context top, BiConsumer<Object, Object> consumer) {
+            reactorContext.stream().forEach(entry -> {
+                if (!top.isShadowed(entry.getKey(), this)) {
+                    consumer.accept(entry.getKey(), entry.getValue());
+                }
+            });
+        }
+
+        @Override
+        int appendLocal(StringBuilder stringBuilder, boolean first) {
+            final int[] opened = new int[1];
+            reactorContext.stream().forEach(entry ->
+                    appendEntry(stringBuilder, first && opened[0]++ == 0, entry.getKey(), entry.getValue()));
+            return reactorContext.size();
+        }
+    }
 }
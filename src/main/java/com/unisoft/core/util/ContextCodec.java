@@ -0,0 +1,294 @@
+package com.unisoft.core.util;
+
+import com.unisoft.core.annotations.Immutable;
+import com.unisoft.core.util.log.LogUtil;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Serializes {@link Context} entries to propagate them across processes.
+ * <p>
+ * Only the visible entries whose key and value are both {@link String Strings} are serialized, in a compact binary form:
+ * a format version byte, the number of entries, then for each entry, from the oldest to the most recent, the length
+ * and UTF-8 bytes of its key followed by those of its value. Counts and lengths are unsigned variable length integers
+ * taking one byte below 128. The header form is the unpadded Base64Url encoding of the binary form.
+ * <p>
+ * Decoding checks the size limits and the structure of the input right away, but the entries themselves are only
+ * parsed when the decoded context is first looked up, so contexts passed along untouched cost a single scan.
+ *
+ * @author omar.H.Ajmi
+ * @since 16/10/2026
+ */
+@Immutable
+public final class ContextCodec {
+    /**
+     * Default maximum number of bytes of the binary form.
+     */
+    public static final int DEFAULT_MAX_ENCODED_SIZE = 8 * 1024;
+    /**
+     * Default maximum number of entries.
+     */
+    public static final int DEFAULT_MAX_ENTRIES = 64;
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ContextCodec.class);
+    private static final byte FORMAT_VERSION = 1;
+
+    private final int maxEncodedSize;
+    private final int maxEntries;
+
+    /**
+     * Creates a codec with the default size limits.
+     */
+    public ContextCodec() {
+        this(DEFAULT_MAX_ENCODED_SIZE, DEFAULT_MAX_ENTRIES);
+    }
+
+    /**
+     * Creates a codec.
+     *
+     * @param maxEncodedSize the maximum number of bytes of the binary form, enforced when encoding and decoding
+     * @param maxEntries     the maximum number of entries, enforced when encoding and decoding
+     * @throws IllegalArgumentException if {@code maxEncodedSize} or {@code maxEntries} is not positive
+     */
+    public ContextCodec(int maxEncodedSize, int maxEntries) {
+        if (maxEncodedSize <= 0) {
+            throw LogUtil.logExceptionAsError(LOGGER, new IllegalArgumentException("'maxEncodedSize' must be positive."));
+        }
+        if (maxEntries <= 0) {
+            throw LogUtil.logExceptionAsError(LOGGER, new IllegalArgumentException("'maxEntries' must be positive."));
+        }
+        this.maxEncodedSize = maxEncodedSize;
+        this.maxEntries = maxEntries;
+    }
+
+    /**
+     * Serializes the visible {@link String} entries of the context into the binary form.
+     *
+     * @param context the context to serialize
+     * @return the binary form
+     * @throws NullPointerException     if {@code context} is {@code null}
+     * @throws IllegalArgumentException if the entries exceed the size limits
+     */
+    public byte[] encode(Context context) {
+        Objects.requireNonNull(context, "'context' cannot be null.");
+        final List<byte[]> entries = new ArrayList<>();
+        context.forEach((key, value) -> {
+            if (key instanceof String && value instanceof String) {
+                entries.add(((String) key).getBytes(StandardCharsets.UTF_8));
+                entries.add(((String) value).getBytes(StandardCharsets.UTF_8));
+            }
+        });
+
+        final int count = entries.size() / 2;
+        if (count > maxEntries) {
+            throw LogUtil.logExceptionAsError(LOGGER, new IllegalArgumentException(
+                    "Context has " + count + " entries, more than the limit of " + maxEntries + "."));
+        }
+        long size = 1 + varIntSize(count);
+        for (byte[] entry : entries) {
+            size += varIntSize(entry.length) + entry.length;
+        }
+        if (size > maxEncodedSize) {
+            throw LogUtil.logExceptionAsError(LOGGER, new IllegalArgumentException(
+                    "Encoded context takes " + size + " bytes, more than the limit of " + maxEncodedSize + "."));
+        }
+
+        final byte[] encoded = new byte[(int) size];
+        encoded[0] = FORMAT_VERSION;
+        int position = writeVarInt(encoded, 1, count);
+        // forEach visits the most recent entries first, they are written last.
+        for (int i = entries.size() - 2; i >= 0; i -= 2) {
+            position = writeBytes(encoded, position, entries.get(i));
+            position = writeBytes(encoded, position, entries.get(i + 1));
+        }
+        return encoded;
+    }
+
+    /**
+     * Serializes the visible {@link String} entries of the context into the header form.
+     *
+     * @param context the context to serialize
+     * @return the header form
+     * @throws NullPointerException     if {@code context} is {@code null}
+     * @throws IllegalArgumentException if the entries exceed the size limits
+     */
+    public String encodeToHeader(Context context) {
+        return Base64Url.encode(encode(context)).toString();
+    }
+
+    /**
+     * Deserializes the binary form.
+     *
+     * @param encoded the binary form, which must not be modified afterwards
+     * @return a context holding the decoded entries, {@link Context#NONE} if there are none
+     * @throws NullPointerException     if {@code encoded} is {@code null}
+     * @throws IllegalArgumentException if {@code encoded} exceeds the size limits or is malformed
+     */
+    public Context decode(byte[] encoded) {
+        return decode(Context.NONE, encoded);
+    }
+
+    /**
+     * Deserializes the binary form on top of the given context, the decoded entries shadowing the parent's.
+     *
+     * @param parent  the context to add the decoded entries to
+     * @param encoded the binary form, which must not be modified afterwards
+     * @return a context holding the decoded entries, {@code parent} if there are none
+     * @throws NullPointerException     if {@code parent} or {@code encoded} is {@code null}
+     * @throws IllegalArgumentException if {@code encoded} exceeds the size limits or is malformed
+     */
+    public Context decode(Context parent, byte[] encoded) {
+        Objects.requireNonNull(parent, "'parent' cannot be null.");
+        Objects.requireNonNull(encoded, "'encoded' cannot be null.");
+        final int count = validate(encoded);
+        return count == 0 ? parent : Context.lazy(parent, () -> parse(encoded, count));
+    }
+
+    /**
+     * Deserializes the header form.
+     *
+     * @param header the header form
+     * @return a context holding the decoded entries, {@link Context#NONE} if there are none
+     * @throws NullPointerException     if {@code header} is {@code null}
+     * @throws IllegalArgumentException if {@code header} exceeds the size limits or is malformed
+     */
+    public Context decodeHeader(String header) {
+        return decodeHeader(Context.NONE, header);
+    }
+
+    /**
+     * Deserializes the header form on top of the given context, the decoded entries shadowing the parent's.
+     *
+     * @param parent the context to add the decoded entries to
+     * @param header the header form
+     * @return a context holding the decoded entries, {@code parent} if there are none
+     * @throws NullPointerException     if {@code parent} or {@code header} is {@code null}
+     * @throws IllegalArgumentException if {@code header} exceeds the size limits or is malformed
+     */
+    public Context decodeHeader(Context parent, String header) {
+        Objects.requireNonNull(header, "'header' cannot be null.");
+        // unpadded Base64 takes 4 characters per 3 bytes, rejecting oversized headers before decoding them.
+        if (header.length() > ((long) maxEncodedSize * 4 + 2) / 3) {
+            throw new IllegalArgumentException(
+                    "Context header exceeds the limit of " + maxEncodedSize + " encoded bytes.");
+        }
+        final byte[] encoded;
+        try {
+            encoded = new Base64Url(header).decodedBytes();
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Malformed context header.", e);
+        }
+        return decode(parent, encoded);
+    }
+
+    /*
+     * Checks the limits and the structure of the binary form without parsing the entries, returning their count.
+     *
+     * The input comes from peers and is rejected without being logged, so that malformed input cannot flood the logs,
+     * the caller deciding whether and how to report it.
+     */
+    private int validate(byte[] encoded) {
+        if (encoded.length > maxEncodedSize) {
+            throw new IllegalArgumentException("Encoded context takes " + encoded.length
+                    + " bytes, more than the limit of " + maxEncodedSize + ".");
+        }
+        if (encoded.length == 0 || encoded[0] != FORMAT_VERSION) {
+            throw malformed("unsupported format version");
+        }
+
+        long cursor = readVarInt(encoded, 1);
+        final int count = (int) cursor;
+        if (count > maxEntries) {
+            throw new IllegalArgumentException(
+                    "Encoded context has " + count + " entries, more than the limit of " + maxEntries + ".");
+        }
+        int position = (int) (cursor >>> 32);
+        for (long i = 0; i < 2L * count; i++) {
+            cursor = readVarInt(encoded, position);
+            position = (int) (cursor >>> 32);
+            if ((int) cursor > encoded.length - position) {
+                throw malformed("truncated entry");
+            }
+            position += (int) cursor;
+        }
+        if (position != encoded.length) {
+            throw malformed("trailing bytes");
+        }
+        return count;
+    }
+
+    /*
+     * Parses an input that went through validate.
+     */
+    private static Context parse(byte[] encoded, int count) {
+        final Object[] keys = new Object[count];
+        final Object[] values = new Object[count];
+        int position = (int) (readVarInt(encoded, 1) >>> 32);
+        for (int i = 0; i < count; i++) {
+            long cursor = readVarInt(encoded, position);
+            position = (int) (cursor >>> 32);
+            keys[i] = new String(encoded, position, (int) cursor, StandardCharsets.UTF_8);
+            position += (int) cursor;
+
+            cursor = readVarInt(encoded, position);
+            position = (int) (cursor >>> 32);
+            values[i] = new String(encoded, position, (int) cursor, StandardCharsets.UTF_8);
+            position += (int) cursor;
+        }
+        return Context.compact(null, keys, values, count);
+    }
+
+    private static int varIntSize(int value) {
+        int size = 1;
+        while ((value >>>= 7) != 0) {
+            size++;
+        }
+        return size;
+    }
+
+    private static int writeVarInt(byte[] destination, int position, int value) {
+        while ((value & ~0x7F) != 0) {
+            destination[position++] = (byte) ((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        destination[position++] = (byte) value;
+        return position;
+    }
+
+    private static int writeBytes(byte[] destination, int position, byte[] bytes) {
+        position = writeVarInt(destination, position, bytes.length);
+        System.arraycopy(bytes, 0, destination, position, bytes.length);
+        return position + bytes.length;
+    }
+
+    /*
+     * Reads a non negative variable length integer, returning the position following it in the high 32 bits and the
+     * value in the low 32 bits, which spares allocating a cursor.
+     */
+    private static long readVarInt(byte[] source, int position) {
+        int value = 0;
+        for (int shift = 0; shift < 32; shift += 7) {
+            if (position >= source.length) {
+                throw malformed("truncated length");
+            }
+            final byte b = source[position++];
+            value |= (b & 0x7F) << shift;
+            if (b >= 0) {
+                if (value < 0) {
+                    break;
+                }
+                return ((long) position << 32) | value;
+            }
+        }
+        throw malformed("invalid length");
+    }
+
+    private static IllegalArgumentException malformed(String reason) {
+        return new IllegalArgumentException("Malformed encoded context: " + reason + ".");
+    }
+}
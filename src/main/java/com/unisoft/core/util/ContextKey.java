@@ -0,0 +1,104 @@
+package com.unisoft.core.util;
+
+import com.unisoft.core.annotations.Immutable;
+import com.unisoft.core.util.log.LogUtil;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A typed key of {@link Context} data.
+ * <p>
+ * Keys are compared by identity and carry a hash computed once at creation, so looking one up never hashes nor
+ * compares strings. Keys are meant to be created once and kept in {@code static final} fields; two keys created with
+ * the same name are distinct.
+ *
+ * <p><strong>Code samples</strong></p>
+ * <pre>
+ * private static final ContextKey&lt;String&gt; TENANT = ContextKey.of("tenant", String.class);
+ *
+ * Context context = Context.NONE.addData(TENANT, "unisoft");
+ * String tenant = context.getOrNull(TENANT);
+ * </pre>
+ *
+ * @param <T> the type of the values associated with the key
+ * @author omar.H.Ajmi
+ * @since 16/10/2026
+ */
+@Immutable
+public final class ContextKey<T> {
+    private static final Logger LOGGER = LoggerFactory.getLogger(ContextKey.class);
+    private static final AtomicInteger NEXT_ID = new AtomicInteger();
+    /*
+     * Fibonacci hashing multiplier, spreading consecutive ids evenly over the slots of an open-addressed table.
+     */
+    private static final int GOLDEN_RATIO = 0x9E3779B9;
+
+    private final String name;
+    private final Class<T> type;
+    private final int hash;
+
+    private ContextKey(String name, Class<T> type) {
+        this.name = name;
+        this.type = type;
+        this.hash = NEXT_ID.getAndIncrement() * GOLDEN_RATIO;
+    }
+
+    /**
+     * Creates a new key.
+     *
+     * @param name the name of the key, used by {@link #toString()}
+     * @param type the type of the values associated with the key
+     * @param <T>  the type of the values associated with the key
+     * @return the new key
+     * @throws NullPointerException     if {@code name} or {@code type} is {@code null}
+     * @throws IllegalArgumentException if {@code type} is a primitive type
+     */
+    public static <T> ContextKey<T> of(String name, Class<T> type) {
+        Objects.requireNonNull(name, "'name' cannot be null.");
+        Objects.requireNonNull(type, "'type' cannot be null.");
+        if (type.isPrimitive()) {
+            throw LogUtil.logExceptionAsError(LOGGER,
+                    new IllegalArgumentException("'type' cannot be primitive, use its wrapper type instead."));
+        }
+        return new ContextKey<>(name, type);
+    }
+
+    /**
+     * @return the name of the key
+     */
+    public String name() {
+        return name;
+    }
+
+    /**
+     * @return the type of the values associated with the key
+     */
+    public Class<T> type() {
+        return type;
+    }
+
+    /*
+     * Casts a value found under this key, which may have been added without type checks through addData(Object, ...).
+     */
+    T cast(Object value) {
+        return type.cast(value);
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        return this == obj;
+    }
+
+    @Override
+    public int hashCode() {
+        return hash;
+    }
+
+    @Override
+    public String toString() {
+        return name;
+    }
+}
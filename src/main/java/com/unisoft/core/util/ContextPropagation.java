@@ -0,0 +1,354 @@
+package com.unisoft.core.util;
+
+import reactor.core.scheduler.Schedulers;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Carries the current {@link Context} of a thread over to the tasks it hands to other threads.
+ * <p>
+ * The current context is set for a scope with {@link #makeCurrent(Context)} and read with {@link #current()}. Tasks
+ * wrapped with {@link #wrap(Runnable)} or {@link #wrap(Callable)}, or submitted to an executor wrapped with one of the
+ * {@code wrap} methods, capture the current context when they are created and restore it around their execution.
+ * {@link #registerSchedulerHook()} does the same for every task scheduled on a Reactor {@link
+ * reactor.core.scheduler.Scheduler}.
+ * <p>
+ * Contexts being immutable, capturing one is a single thread local read, and restoring it a field write: no data is
+ * copied. Tasks are left unwrapped when there is no current context.
+ *
+ * <p><strong>Code samples</strong></p>
+ * <pre>
+ * ExecutorService executor = ContextPropagation.wrap(Executors.newFixedThreadPool(4));
+ * try (ContextPropagation.Scope scope = ContextPropagation.makeCurrent(context)) {
+ *     executor.submit(() -&gt; ContextPropagation.current().getData("tenant"));
+ * }
+ * </pre>
+ *
+ * @author omar.H.Ajmi
+ * @since 16/10/2026
+ */
+public final class ContextPropagation {
+    /**
+     * Key under which {@link #registerSchedulerHook()} registers its Reactor schedule hook.
+     */
+    public static final String SCHEDULE_HOOK_KEY = "com.unisoft.core.util.ContextPropagation";
+
+    /*
+     * A mutable holder per thread, so that changing the current context doesn't touch the thread local map.
+     */
+    private static final ThreadLocal<Holder> HOLDER = ThreadLocal.withInitial(Holder::new);
+    private static final Scope NOOP_SCOPE = () -> {
+    };
+
+    private ContextPropagation() {
+    }
+
+    /**
+     * @return the current context of the calling thread, {@link Context#NONE} if there is none
+     */
+    public static Context current() {
+        return HOLDER.get().current;
+    }
+
+    /**
+     * Makes the context the current context of the calling thread, until the returned scope is closed.
+     * <p>
+     * Scopes must be closed on the thread that opened them, in the reverse order they were opened, which
+     * try-with-resources takes care of.
+     *
+     * @param context the new current context
+     * @return the scope, restoring the previous current context when closed
+     * @throws NullPointerException if {@code context} is {@code null}
+     */
+    public static Scope makeCurrent(Context context) {
+        Objects.requireNonNull(context, "'context' cannot be null.");
+        final Holder holder = HOLDER.get();
+        final Context previous = holder.current;
+        if (previous == context) {
+            return NOOP_SCOPE;
+        }
+        holder.current = context;
+        return () -> holder.current = previous;
+    }
+
+    /**
+     * Wraps the task so that it runs with the current context of the calling thread.
+     *
+     * @param task the task to wrap
+     * @return the wrapped task, {@code task} itself if there is no current context
+     * @throws NullPointerException if {@code task} is {@code null}
+     */
+    public static Runnable wrap(Runnable task) {
+        Objects.requireNonNull(task, "'task' cannot be null.");
+        final Context context = current();
+        return context == Context.NONE || task instanceof ContextRunnable ? task : new ContextRunnable(context, task);
+    }
+
+    /**
+     * Wraps the task so that it runs with the current context of the calling thread.
+     *
+     * @param task the task to wrap
+     * @param <T>  the type of the task's result
+     * @return the wrapped task, {@code task} itself if there is no current context
+     * @throws NullPointerException if {@code task} is {@code null}
+     */
+    public static <T> Callable<T> wrap(Callable<T> task) {
+        Objects.requireNonNull(task, "'task' cannot be null.");
+        final Context context = current();
+        return context == Context.NONE || task instanceof ContextCallable ? task : new ContextCallable<>(context, task);
+    }
+
+    /**
+     * Wraps the executor so that the tasks it is given run with the current context of the thread handing them.
+     *
+     * @param executor the executor to wrap
+     * @return the wrapped executor
+     * @throws NullPointerException if {@code executor} is {@code null}
+     */
+    public static Executor wrap(Executor executor) {
+        Objects.requireNonNull(executor, "'executor' cannot be null.");
+        return executor instanceof PropagatingExecutor ? executor : new PropagatingExecutor(executor);
+    }
+
+    /**
+     * Wraps the executor service so that the tasks it is given run with the current context of the thread submitting
+     * them.
+     *
+     * @param executorService the executor service to wrap
+     * @return the wrapped executor service
+     * @throws NullPointerException if {@code executorService} is {@code null}
+     */
+    public static ExecutorService wrap(ExecutorService executorService) {
+        Objects.requireNonNull(executorService, "'executorService' cannot be null.");
+        return executorService instanceof PropagatingExecutorService
+                ? executorService
+                : new PropagatingExecutorService(executorService);
+    }
+
+    /**
+     * Wraps the scheduled executor service so that the tasks it is given run with the current context of the thread
+     * scheduling them.
+     *
+     * @param executorService the scheduled executor service to wrap
+     * @return the wrapped scheduled executor service
+     * @throws NullPointerException if {@code executorService} is {@code null}
+     */
+    public static ScheduledExecutorService wrap(ScheduledExecutorService executorService) {
+        Objects.requireNonNull(executorService, "'executorService' cannot be null.");
+        return executorService instanceof PropagatingScheduledExecutorService
+                ? executorService
+                : new PropagatingScheduledExecutorService(executorService);
+    }
+
+    /**
+     * Registers a Reactor schedule hook, under {@link #SCHEDULE_HOOK_KEY}, making the tasks scheduled on any
+     * {@link reactor.core.scheduler.Scheduler} run with the current context of the thread scheduling them.
+     */
+    public static void registerSchedulerHook() {
+        Schedulers.onScheduleHook(SCHEDULE_HOOK_KEY, ContextPropagation::wrap);
+    }
+
+    /**
+     * Removes the hook registered by {@link #registerSchedulerHook()}.
+     */
+    public static void resetSchedulerHook() {
+        Schedulers.resetOnScheduleHook(SCHEDULE_HOOK_KEY);
+    }
+
+    private static <T> List<Callable<T>> wrapAll(Collection<? extends Callable<T>> tasks) {
+        final List<Callable<T>> wrapped = new ArrayList<>(tasks.size());
+        for (Callable<T> task : tasks) {
+            wrapped.add(wrap(task));
+        }
+        return wrapped;
+    }
+
+    /**
+     * A scope in which a context is current, see {@link #makeCurrent(Context)}.
+     */
+    @FunctionalInterface
+    public interface Scope extends AutoCloseable {
+        /**
+         * Restores the context that was current when the scope was opened.
+         */
+        @Override
+        void close();
+    }
+
+    private static final class Holder {
+        private Context current = Context.NONE;
+    }
+
+    private static final class ContextRunnable implements Runnable {
+        private final Context context;
+        private final Runnable task;
+
+        ContextRunnable(Context context, Runnable task) {
+            this.context = context;
+            this.task = task;
+        }
+
+        @Override
+        public void run() {
+            final Holder holder = HOLDER.get();
+            final Context previous = holder.current;
+            holder.current = context;
+            try {
+                task.run();
+            } finally {
+                holder.current = previous;
+            }
+        }
+    }
+
+    private static final class ContextCallable<T> implements Callable<T> {
+        private final Context context;
+        private final Callable<T> task;
+
+        ContextCallable(Context context, Callable<T> task) {
+            this.context = context;
+            this.task = task;
+        }
+
+        @Override
+        public T call() throws Exception {
+            final Holder holder = HOLDER.get();
+            final Context previous = holder.current;
+            holder.current = context;
+            try {
+                return task.call();
+            } finally {
+                holder.current = previous;
+            }
+        }
+    }
+
+    private static class PropagatingExecutor implements Executor {
+        private final Executor delegate;
+
+        PropagatingExecutor(Executor delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public void execute(Runnable command) {
+            delegate.execute(wrap(command));
+        }
+    }
+
+    private static class PropagatingExecutorService extends PropagatingExecutor implements ExecutorService {
+        private final ExecutorService delegate;
+
+        PropagatingExecutorService(ExecutorService delegate) {
+            super(delegate);
+            this.delegate = delegate;
+        }
+
+        @Override
+        public void shutdown() {
+            delegate.shutdown();
+        }
+
+        @Override
+        public List<Runnable> shutdownNow() {
+            return delegate.shutdownNow();
+        }
+
+        @Override
+        public boolean isShutdown() {
+            return delegate.isShutdown();
+        }
+
+        @Override
+        public boolean isTerminated() {
+            return delegate.isTerminated();
+        }
+
+        @Override
+        public boolean awaitTermination(long timeout, TimeUnit unit) throws InterruptedException {
+            return delegate.awaitTermination(timeout, unit);
+        }
+
+        @Override
+        public <T> Future<T> submit(Callable<T> task) {
+            return delegate.submit(wrap(task));
+        }
+
+        @Override
+        public <T> Future<T> submit(Runnable task, T result) {
+            return delegate.submit(wrap(task), result);
+        }
+
+        @Override
+        public Future<?> submit(Runnable task) {
+            return delegate.submit(wrap(task));
+        }
+
+        @Override
+        public <T> List<Future<T>> invokeAll(Collection<? extends Callable<T>> tasks) throws InterruptedException {
+            return delegate.invokeAll(wrapAll(tasks));
+        }
+
+        @Override
+        public <T> List<Future<T>> invokeAll(Collection<? extends Callable<T>> tasks, long timeout, TimeUnit unit)
+                throws InterruptedException {
+            return delegate.invokeAll(wrapAll(tasks), timeout, unit);
+        }
+
+        @Override
+        public <T> T invokeAny(Collection<? extends Callable<T>> tasks)
+                throws InterruptedException, ExecutionException {
+            return delegate.invokeAny(wrapAll(tasks));
+        }
+
+        @Override
+        public <T> T invokeAny(Collection<? extends Callable<T>> tasks, long timeout, TimeUnit unit)
+                throws InterruptedException, ExecutionException, TimeoutException {
+            return delegate.invokeAny(wrapAll(tasks), timeout, unit);
+        }
+    }
+
+    private static final class PropagatingScheduledExecutorService extends PropagatingExecutorService
+            implements ScheduledExecutorService {
+        private final ScheduledExecutorService delegate;
+
+        PropagatingScheduledExecutorService(ScheduledExecutorService delegate) {
+            super(delegate);
+            this.delegate = delegate;
+        }
+
+        @Override
+        public ScheduledFuture<?> schedule(Runnable command, long delay, TimeUnit unit) {
+            return delegate.schedule(wrap(command), delay, unit);
+        }
+
+        @Override
+        public <V> ScheduledFuture<V> schedule(Callable<V> callable, long delay, TimeUnit unit) {
+            return delegate.schedule(wrap(callable), delay, unit);
+        }
+
+        @Override
+        public ScheduledFuture<?> scheduleAtFixedRate(Runnable command, long initialDelay, long period,
+                                                      TimeUnit unit) {
+            return delegate.scheduleAtFixedRate(wrap(command), initialDelay, period, unit);
+        }
+
+        @Override
+        public ScheduledFuture<?> scheduleWithFixedDelay(Runnable command, long initialDelay, long delay,
+                                                         TimeUnit unit) {
+            return delegate.scheduleWithFixedDelay(wrap(command), initialDelay, delay, unit);
+        }
+    }
+}
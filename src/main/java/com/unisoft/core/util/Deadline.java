@@ -0,0 +1,146 @@
+package com.unisoft.core.util;
+
+import com.unisoft.core.annotations.Immutable;
+
+import java.time.Duration;
+import java.util.Objects;
+
+/**
+ * A point in time past which the result of an operation is no longer useful, because its caller gave up on it.
+ * <p>
+ * A deadline travels in a {@link Context}, or a Reactor context, under {@link #KEY}. {@link FluxUtil#applyDeadline(
+ * reactor.core.publisher.Mono)} and {@link FluxUtil#withContext(java.util.function.Function)} fail with a {@link
+ * java.util.concurrent.TimeoutException} once it passes, without starting the work if it already has.
+ * <p>
+ * Deadlines are based on {@link System#nanoTime()}, they are only meaningful within the process that created them.
+ *
+ * @author omar.H.Ajmi
+ * @since 16/10/2026
+ */
+@Immutable
+public final class Deadline implements Comparable<Deadline> {
+    /**
+     * The key of the deadline in a {@link Context} or a Reactor context.
+     */
+    public static final ContextKey<Deadline> KEY = ContextKey.of("deadline", Deadline.class);
+
+    /*
+     * Bound of the nanoTime offsets, keeping the differences of two deadlines from overflowing.
+     */
+    private static final long MAX_NANOS = Long.MAX_VALUE / 4;
+
+    private final long deadlineNanos;
+
+    private Deadline(long deadlineNanos) {
+        this.deadlineNanos = deadlineNanos;
+    }
+
+    /**
+     * Creates a deadline the given amount of time from now.
+     *
+     * @param timeout the time left before the deadline, capped to about 73 years
+     * @return the deadline
+     * @throws NullPointerException if {@code timeout} is {@code null}
+     */
+    public static Deadline after(Duration timeout) {
+        Objects.requireNonNull(timeout, "'timeout' cannot be null.");
+        return new Deadline(System.nanoTime() + saturatedNanos(timeout));
+    }
+
+    /**
+     * Gets the deadline of the context.
+     *
+     * @param context the context
+     * @return the deadline of the context, {@code null} if it has none
+     * @throws NullPointerException if {@code context} is {@code null}
+     */
+    public static Deadline from(Context context) {
+        return context.getOrNull(KEY);
+    }
+
+    private static long saturatedNanos(Duration duration) {
+        if (duration.getSeconds() >= MAX_NANOS / 1_000_000_000L) {
+            return MAX_NANOS;
+        }
+        if (duration.getSeconds() <= -MAX_NANOS / 1_000_000_000L) {
+            return -MAX_NANOS;
+        }
+        return duration.toNanos();
+    }
+
+    /**
+     * @return the number of nanoseconds left before the deadline, negative once it passed
+     */
+    public long remainingNanos() {
+        return deadlineNanos - System.nanoTime();
+    }
+
+    /**
+     * @return the time left before the deadline, {@link Duration#ZERO} once it passed
+     */
+    public Duration remaining() {
+        return Duration.ofNanos(Math.max(0, remainingNanos()));
+    }
+
+    /**
+     * @return whether the deadline passed
+     */
+    public boolean isExpired() {
+        return remainingNanos() <= 0;
+    }
+
+    /**
+     * Creates a deadline earlier by the given margin, leaving the caller time to handle the outcome of the calls it
+     * passes the shrunk deadline to.
+     *
+     * @param margin the time to reserve
+     * @return the shrunk deadline
+     * @throws NullPointerException if {@code margin} is {@code null}
+     */
+    public Deadline shrink(Duration margin) {
+        Objects.requireNonNull(margin, "'margin' cannot be null.");
+        return margin.isZero() ? this : new Deadline(deadlineNanos - saturatedNanos(margin));
+    }
+
+    /**
+     * @param other another deadline, may be {@code null}
+     * @return the earliest of this deadline and {@code other}
+     */
+    public Deadline earliest(Deadline other) {
+        return other == null || compareTo(other) <= 0 ? this : other;
+    }
+
+    /**
+     * Adds the deadline to the context, unless the context already has an earlier one: a callee cannot be given more
+     * time than its caller.
+     *
+     * @param context the context
+     * @return the context with the earliest deadline
+     * @throws NullPointerException if {@code context} is {@code null}
+     */
+    public Context addTo(Context context) {
+        final Deadline current = from(context);
+        return current != null && current.compareTo(this) <= 0 ? context : context.addData(KEY, this);
+    }
+
+    @Override
+    public int compareTo(Deadline other) {
+        // nanoTime values may overflow, only their differences are meaningful.
+        return Long.signum(deadlineNanos - other.deadlineNanos);
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        return obj instanceof Deadline && ((Deadline) obj).deadlineNanos == deadlineNanos;
+    }
+
+    @Override
+    public int hashCode() {
+        return Long.hashCode(deadlineNanos);
+    }
+
+    @Override
+    public String toString() {
+        return "Deadline{remaining=" + remaining() + "}";
+    }
+}
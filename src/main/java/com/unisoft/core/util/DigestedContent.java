@@ -0,0 +1,41 @@
+package com.unisoft.core.util;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.nio.ByteBuffer;
+
+/**
+ * A stream of {@link ByteBuffer ByteBuffers} paired with the digest computed while it is consumed, as returned by
+ * {@link FluxUtil#digest(Flux, ChecksumAlgorithm)}.
+ *
+ * @author omar.H.Ajmi
+ * @since 16/10/2026
+ */
+public final class DigestedContent {
+    private final Flux<ByteBuffer> content;
+    private final Mono<byte[]> digest;
+
+    DigestedContent(Flux<ByteBuffer> content, Mono<byte[]> digest) {
+        this.content = content;
+        this.digest = digest;
+    }
+
+    /**
+     * @return the content, passed through unchanged
+     */
+    public Flux<ByteBuffer> content() {
+        return content;
+    }
+
+    /**
+     * Gets the digest of the content. It is emitted once the first subscription to {@link #content()} completes, and
+     * fails if that subscription fails, or with a {@link java.util.concurrent.CancellationException} if it is
+     * cancelled.
+     *
+     * @return a {@link Mono} emitting the digest
+     */
+    public Mono<byte[]> digest() {
+        return digest;
+    }
+}
@@ -0,0 +1,51 @@
+package com.unisoft.core.util;
+
+import java.time.Duration;
+import java.util.Objects;
+import java.util.function.Supplier;
+
+/**
+ * A handle to a {@link Duration} configuration, see {@link ConfigurationProperty}. Values are either ISO-8601
+ * durations, such as {@code PT30S}, or a number of milliseconds.
+ *
+ * @author omar.H.Ajmi
+ * @since 16/10/2026
+ */
+public final class DurationProperty extends ConfigurationProperty implements Supplier<Duration> {
+    private final Duration defaultValue;
+
+    DurationProperty(UnisoftConfiguration configuration, String name, Duration defaultValue) {
+        super(configuration, name);
+        this.defaultValue = Objects.requireNonNull(defaultValue, "'defaultValue' cannot be null.");
+    }
+
+    /**
+     * @return the value of the configuration, or the default value if it isn't set
+     * @throws java.time.format.DateTimeParseException if the value is not an ISO-8601 duration
+     * @throws NumberFormatException                   if the value is not a number of milliseconds
+     */
+    @Override
+    public Duration get() {
+        return (Duration) state().object;
+    }
+
+    /**
+     * @return the value of the configuration in milliseconds, or the default value if it isn't set
+     */
+    public long toMillis() {
+        return state().primitive;
+    }
+
+    @Override
+    State parse(ConfigurationSnapshot snapshot, String value) {
+        final Duration duration = value.startsWith("P") || value.startsWith("-P")
+                ? Duration.parse(value)
+                : Duration.ofMillis(Long.parseLong(value));
+        return new State(snapshot, value, duration.toMillis(), duration);
+    }
+
+    @Override
+    State parseDefault(ConfigurationSnapshot snapshot) {
+        return new State(snapshot, null, defaultValue.toMillis(), defaultValue);
+    }
+}
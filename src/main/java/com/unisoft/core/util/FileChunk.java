@@ -0,0 +1,48 @@
+package com.unisoft.core.util;
+
+import java.nio.ByteBuffer;
+import java.util.Objects;
+
+/**
+ * A chunk of file content along with the position in the file it belongs at.
+ * <p>
+ * Used by {@link FluxUtil#writeFileChunks(reactor.core.publisher.Flux, java.nio.channels.AsynchronousFileChannel, int)}
+ * so that chunks can be written independently of each other.
+ *
+ * @author omar.H.Ajmi
+ * @since 16/10/2026
+ */
+public final class FileChunk {
+    private final long position;
+    private final ByteBuffer buffer;
+
+    /**
+     * Creates a new {@link FileChunk}.
+     *
+     * @param position the position in the file of the first remaining byte of {@code buffer}
+     * @param buffer   the content of the chunk
+     * @throws IllegalArgumentException if {@code position} is negative
+     * @throws NullPointerException     if {@code buffer} is {@code null}
+     */
+    public FileChunk(long position, ByteBuffer buffer) {
+        if (position < 0) {
+            throw new IllegalArgumentException("'position' cannot be negative.");
+        }
+        this.position = position;
+        this.buffer = Objects.requireNonNull(buffer, "'buffer' cannot be null.");
+    }
+
+    /**
+     * @return the position in the file of the first remaining byte of the buffer
+     */
+    public long position() {
+        return position;
+    }
+
+    /**
+     * @return the content of the chunk
+     */
+    public ByteBuffer buffer() {
+        return buffer;
+    }
+}
@@ -0,0 +1,224 @@
+package com.unisoft.core.util;
+
+import com.unisoft.core.util.log.LogUtil;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A {@link ConfigurationSource} holding the configurations of a file of {@code key=value} lines, read again whenever
+ * the file changes.
+ * <p>
+ * The file is watched with a {@link WatchService} on a dedicated daemon thread, which waits for the file to stay
+ * untouched for the debounce delay, parses it, and notifies the {@link UnisoftConfiguration configurations} using the
+ * source if its configurations changed, each of which then swaps in a new snapshot. Lookups only read the last parsed
+ * configurations and never wait for a reload. A file that cannot be read, e.g. while being replaced, leaves the
+ * previous configurations in place.
+ * <p>
+ * Replacing the file atomically, by moving a complete file over it, spares readers from seeing a partially written
+ * file. The source must be {@link #close() closed} to stop watching the file.
+ *
+ * <p><strong>Code samples</strong></p>
+ * <pre>
+ * FileConfigurationSource file = FileConfigurationSource.watch(Paths.get("unisoft.properties"));
+ * UnisoftConfiguration configuration =
+ *         new UnisoftConfiguration(Arrays.asList(file, ConfigurationSources.environment()));
+ * </pre>
+ *
+ * @author omar.H.Ajmi
+ * @since 16/10/2026
+ */
+public final class FileConfigurationSource implements ConfigurationSource, AutoCloseable {
+    /**
+     * Default delay the file must stay untouched for before being read again.
+     */
+    public static final Duration DEFAULT_DEBOUNCE = Duration.ofMillis(100);
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(FileConfigurationSource.class);
+
+    private final Path path;
+    private final long debounceMillis;
+    private final WatchService watchService;
+    private final List<Runnable> listeners = new CopyOnWriteArrayList<>();
+    private volatile Map<String, String> configurations;
+
+    private FileConfigurationSource(Path path, long debounceMillis, WatchService watchService,
+                                    Map<String, String> configurations) {
+        this.path = path;
+        this.debounceMillis = debounceMillis;
+        this.watchService = watchService;
+        this.configurations = configurations;
+    }
+
+    /**
+     * Reads the file and starts watching it, with the {@link #DEFAULT_DEBOUNCE default debounce delay}.
+     *
+     * @param path the path of the file
+     * @return the source
+     * @throws NullPointerException if {@code path} is {@code null}
+     * @throws UncheckedIOException if the file cannot be read or watched
+     */
+    public static FileConfigurationSource watch(Path path) {
+        return watch(path, DEFAULT_DEBOUNCE);
+    }
+
+    /**
+     * Reads the file and starts watching it.
+     *
+     * @param path     the path of the file, read as described by {@link ConfigurationSources#fromFile(Path)}
+     * @param debounce the delay the file must stay untouched for before being read again, so that a burst of writes
+     *                 causes a single reload
+     * @return the source
+     * @throws NullPointerException     if {@code path} or {@code debounce} is {@code null}
+     * @throws IllegalArgumentException if {@code debounce} is negative
+     * @throws UncheckedIOException     if the file cannot be read or watched
+     */
+    public static FileConfigurationSource watch(Path path, Duration debounce) {
+        Objects.requireNonNull(path, "'path' cannot be null.");
+        Objects.requireNonNull(debounce, "'debounce' cannot be null.");
+        if (debounce.isNegative()) {
+            throw LogUtil.logExceptionAsError(LOGGER, new IllegalArgumentException("'debounce' cannot be negative."));
+        }
+
+        final Path absolute = path.toAbsolutePath();
+        WatchService watchService = null;
+        try {
+            final Map<String, String> configurations = ConfigurationSources.readFile(absolute);
+            watchService = absolute.getFileSystem().newWatchService();
+            // the directory is watched rather than the file, which editors and deployments often replace.
+            absolute.getParent().register(watchService, StandardWatchEventKinds.ENTRY_CREATE,
+                    StandardWatchEventKinds.ENTRY_MODIFY, StandardWatchEventKinds.ENTRY_DELETE);
+            final FileConfigurationSource source = new FileConfigurationSource(absolute, debounce.toMillis(),
+                    watchService, configurations);
+            final Thread thread = new Thread(source::watchLoop,
+                    "unisoft-configuration-watcher-" + absolute.getFileName());
+            thread.setDaemon(true);
+            thread.start();
+            return source;
+        } catch (IOException e) {
+            closeQuietly(watchService);
+            throw LogUtil.logExceptionAsError(LOGGER, new UncheckedIOException(e));
+        }
+    }
+
+    /**
+     * @return the path of the watched file
+     */
+    public Path getPath() {
+        return path;
+    }
+
+    @Override
+    public String get(String name) {
+        return configurations.get(name);
+    }
+
+    @Override
+    public Map<String, String> loadAll() {
+        return configurations;
+    }
+
+    @Override
+    public void addChangeListener(Runnable listener) {
+        listeners.add(Objects.requireNonNull(listener, "'listener' cannot be null."));
+    }
+
+    @Override
+    public void removeChangeListener(Runnable listener) {
+        listeners.remove(listener);
+    }
+
+    /**
+     * Stops watching the file, keeping the last read configurations.
+     */
+    @Override
+    public void close() {
+        closeQuietly(watchService);
+    }
+
+    /*
+     * Runs on the watcher thread until the source is closed.
+     */
+    private void watchLoop() {
+        try {
+            final long debounceNanos = TimeUnit.MILLISECONDS.toNanos(debounceMillis);
+            for (; ; ) {
+                if (!consume(watchService.take())) {
+                    continue;
+                }
+                // debounce: wait until the file stays quiet, reading it once for the whole burst. Events on the other
+                // files of the directory don't restart the wait, so that they can't postpone the reload.
+                long quietUntil = System.nanoTime() + debounceNanos;
+                for (long remaining; (remaining = quietUntil - System.nanoTime()) > 0; ) {
+                    final WatchKey key = watchService.poll(remaining, TimeUnit.NANOSECONDS);
+                    if (key != null && consume(key)) {
+                        quietUntil = System.nanoTime() + debounceNanos;
+                    }
+                }
+                reload();
+            }
+        } catch (ClosedWatchServiceException e) {
+            LogUtil.debug(LOGGER, "Stopped watching configuration file {}.", path);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /*
+     * Drains the events of the key, returning whether any concerns the file.
+     */
+    private boolean consume(WatchKey key) {
+        boolean changed = false;
+        for (WatchEvent<?> event : key.pollEvents()) {
+            changed |= event.kind() == StandardWatchEventKinds.OVERFLOW || path.getFileName().equals(event.context());
+        }
+        key.reset();
+        return changed;
+    }
+
+    private void reload() {
+        final Map<String, String> reloaded;
+        try {
+            reloaded = ConfigurationSources.readFile(path);
+        } catch (IOException e) {
+            LogUtil.warn(LOGGER, "Failed to read configuration file {}, keeping its previous content.", path, e);
+            return;
+        }
+        if (reloaded.equals(configurations)) {
+            return;
+        }
+        configurations = reloaded;
+        for (Runnable listener : listeners) {
+            try {
+                listener.run();
+            } catch (RuntimeException e) {
+                LogUtil.warn(LOGGER, "Configuration file listener failed.", e);
+            }
+        }
+    }
+
+    private static void closeQuietly(WatchService watchService) {
+        if (watchService == null) {
+            return;
+        }
+        try {
+            watchService.close();
+        } catch (IOException e) {
+            LogUtil.warn(LOGGER, "Failed to close the configuration file watch service.", e);
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package com.unisoft.core.util;
+
+import reactor.core.publisher.MonoSink;
+
+import java.nio.ByteBuffer;
+import java.nio.channels.AsynchronousFileChannel;
+import java.nio.channels.CompletionHandler;
+
+/**
+ * Writes a whole {@link ByteBuffer} to an {@link AsynchronousFileChannel}, issuing further writes after partial ones,
+ * and completes a {@link MonoSink} once the buffer is drained.
+ * <p>
+ * A write already handed to the channel cannot be aborted, so cancellation only prevents further partial writes.
+ *
+ * @author omar.H.Ajmi
+ * @since 16/10/2026
+ */
+final class FileWriteHandler implements CompletionHandler<Integer, Object> {
+    private final AsynchronousFileChannel channel;
+    private final ByteBuffer buffer;
+    private final MonoSink<Void> sink;
+    private long position;
+    private volatile boolean cancelled;
+
+    private FileWriteHandler(AsynchronousFileChannel channel, ByteBuffer buffer, long position, MonoSink<Void> sink) {
+        this.channel = channel;
+        this.buffer = buffer;
+        this.position = position;
+        this.sink = sink;
+    }
+
+    static void write(AsynchronousFileChannel channel, ByteBuffer buffer, long position, MonoSink<Void> sink) {
+        FileWriteHandler handler = new FileWriteHandler(channel, buffer, position, sink);
+        sink.onCancel(() -> handler.cancelled = true);
+        handler.writeRemaining();
+    }
+
+    @Override
+    public void completed(Integer written, Object attachment) {
+        position += written;
+        if (cancelled) {
+            return;
+        }
+        if (buffer.hasRemaining()) {
+            writeRemaining();
+        } else {
+            sink.success();
+        }
+    }
+
+    @Override
+    public void failed(Throwable error, Object attachment) {
+        sink.error(error);
+    }
+
+    private void writeRemaining() {
+        try {
+            channel.write(buffer, position, null, this);
+        } catch (RuntimeException e) {
+            sink.error(e);
+        }
+    }
+}
@@ -0,0 +1,148 @@
+package com.unisoft.core.util;
+
+import org.reactivestreams.Subscription;
+import reactor.core.CoreSubscriber;
+import reactor.core.publisher.Flux;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.nio.ByteBuffer;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+/**
+ * {@link InputStream} pulling the content of a {@code Flux<ByteBuffer>} on demand.
+ * <p>
+ * The stream is subscribed to on the first read. At most {@code prefetch} buffers are requested ahead of the reader,
+ * one more being requested each time a buffer is fully read. Closing the input stream cancels the subscription.
+ *
+ * @author omar.H.Ajmi
+ * @since 16/10/2026
+ */
+final class FluxInputStream extends InputStream implements CoreSubscriber<ByteBuffer> {
+    private static final Object COMPLETE = new Object();
+    /*
+     * Wakes up a reader blocked while the stream is closed from another thread.
+     */
+    private static final Object CLOSED = new Object();
+
+    private final Flux<ByteBuffer> source;
+    private final int prefetch;
+    private final BlockingQueue<Object> signals;
+    private volatile Subscription subscription;
+    private volatile boolean closed;
+    private boolean subscribed;
+    private ByteBuffer current;
+    private boolean done;
+
+    FluxInputStream(Flux<ByteBuffer> source, int prefetch) {
+        this.source = source;
+        this.prefetch = prefetch;
+        // one extra slot for the terminal signal.
+        this.signals = new ArrayBlockingQueue<>(prefetch + 1);
+    }
+
+    @Override
+    public int read() throws IOException {
+        ByteBuffer buffer = nextBuffer();
+        return buffer == null ? -1 : buffer.get() & 0xFF;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+        if (len == 0) {
+            return 0;
+        }
+        ByteBuffer buffer = nextBuffer();
+        if (buffer == null) {
+            return -1;
+        }
+        int length = Math.min(len, buffer.remaining());
+        buffer.get(b, off, length);
+        return length;
+    }
+
+    @Override
+    public int available() {
+        return current == null ? 0 : current.remaining();
+    }
+
+    @Override
+    public void close() {
+        closed = true;
+        Subscription s = subscription;
+        if (s != null) {
+            s.cancel();
+        }
+        signals.clear();
+        signals.offer(CLOSED);
+        current = null;
+    }
+
+    @Override
+    public void onSubscribe(Subscription s) {
+        subscription = s;
+        if (closed) {
+            s.cancel();
+        } else {
+            s.request(prefetch);
+        }
+    }
+
+    @Override
+    public void onNext(ByteBuffer byteBuffer) {
+        signals.offer(byteBuffer);
+    }
+
+    @Override
+    public void onError(Throwable t) {
+        signals.offer(t);
+    }
+
+    @Override
+    public void onComplete() {
+        signals.offer(COMPLETE);
+    }
+
+    private ByteBuffer nextBuffer() throws IOException {
+        if (closed) {
+            throw new IOException("Stream closed.");
+        }
+        while (current == null || !current.hasRemaining()) {
+            if (done) {
+                return null;
+            }
+            if (current != null) {
+                current = null;
+                subscription.request(1);
+            }
+            if (!subscribed) {
+                subscribed = true;
+                source.subscribe(this);
+            }
+
+            Object signal;
+            try {
+                signal = signals.take();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Interrupted while waiting for content.");
+            }
+
+            if (closed || signal == CLOSED) {
+                throw new IOException("Stream closed.");
+            }
+            if (signal == COMPLETE) {
+                done = true;
+            } else if (signal instanceof Throwable) {
+                done = true;
+                Throwable error = (Throwable) signal;
+                throw error instanceof IOException ? (IOException) error : new IOException(error);
+            } else {
+                current = (ByteBuffer) signal;
+            }
+        }
+        return current;
+    }
+}
@@ -0,0 +1,126 @@
+package com.unisoft.core.util;
+
+import reactor.core.publisher.FluxSink;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+
+/**
+ * {@link OutputStream} emitting what is written to it as {@link ByteBuffer ByteBuffers} of {@code chunkSize} bytes.
+ * <p>
+ * A chunk is only emitted once downstream has requested it, writers block until then, so at most one chunk is held
+ * by the stream. Writing after downstream cancelled fails with an {@link IOException}.
+ *
+ * @author omar.H.Ajmi
+ * @since 16/10/2026
+ */
+final class FluxOutputStream extends OutputStream {
+    private final FluxSink<ByteBuffer> sink;
+    private final int chunkSize;
+    private final Object lock = new Object();
+    private long demand;
+    private boolean cancelled;
+    private boolean closed;
+    private byte[] chunk;
+    private int count;
+
+    FluxOutputStream(FluxSink<ByteBuffer> sink, int chunkSize) {
+        this.sink = sink;
+        this.chunkSize = chunkSize;
+        this.chunk = new byte[chunkSize];
+        sink.onRequest(this::request);
+        sink.onCancel(this::cancel);
+    }
+
+    @Override
+    public void write(int b) throws IOException {
+        ensureOpen();
+        if (count == chunkSize) {
+            emit();
+        }
+        chunk[count++] = (byte) b;
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) throws IOException {
+        ensureOpen();
+        while (len > 0) {
+            if (count == chunkSize) {
+                emit();
+            }
+            int length = Math.min(len, chunkSize - count);
+            System.arraycopy(b, off, chunk, count, length);
+            count += length;
+            off += length;
+            len -= length;
+        }
+    }
+
+    /**
+     * Emits the bytes written so far, even if they don't fill a chunk.
+     */
+    @Override
+    public void flush() throws IOException {
+        ensureOpen();
+        if (count > 0) {
+            emit();
+        }
+    }
+
+    /**
+     * Emits the remaining bytes and completes the stream.
+     */
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        flush();
+        closed = true;
+        sink.complete();
+    }
+
+    private void ensureOpen() throws IOException {
+        if (closed) {
+            throw new IOException("Stream closed.");
+        }
+    }
+
+    private void emit() throws IOException {
+        synchronized (lock) {
+            while (demand == 0 && !cancelled) {
+                try {
+                    lock.wait();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new InterruptedIOException("Interrupted while waiting for demand.");
+                }
+            }
+            if (cancelled) {
+                throw new IOException("Downstream cancelled.");
+            }
+            if (demand != Long.MAX_VALUE) {
+                demand--;
+            }
+        }
+        sink.next(ByteBuffer.wrap(chunk, 0, count));
+        chunk = new byte[chunkSize];
+        count = 0;
+    }
+
+    private void request(long n) {
+        synchronized (lock) {
+            demand = demand + n < 0 ? Long.MAX_VALUE : demand + n;
+            lock.notifyAll();
+        }
+    }
+
+    private void cancel() {
+        synchronized (lock) {
+            cancelled = true;
+            lock.notifyAll();
+        }
+    }
+}
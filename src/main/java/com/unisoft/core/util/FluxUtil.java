@@ -1,39 +1,148 @@
 package com.unisoft.core.util;
 
+import org.reactivestreams.Publisher;
+import reactor.core.publisher.DirectProcessor;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
+import reactor.core.publisher.MonoProcessor;
+import reactor.core.scheduler.Schedulers;
 
-import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.lang.ref.WeakReference;
 import java.lang.reflect.Type;
 import java.nio.ByteBuffer;
+import java.nio.channels.AsynchronousFileChannel;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.time.Duration;
 import java.util.Collections;
+import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicReferenceArray;
 import java.util.function.Function;
-import java.util.stream.Collectors;
+import java.util.function.Supplier;
 
 /**
  * @author omar.H.Ajmi
  * @since 18/10/2020
  */
 public class FluxUtil {
+    private static final long DEFAULT_COLLECT_MEMORY_THRESHOLD = 4 * 1024 * 1024;
+    private static final LongProperty COLLECT_MEMORY_THRESHOLD = UnisoftConfiguration.getGlobalConfiguration()
+            .getLongProperty(UnisoftConfiguration.COLLECT_MEMORY_THRESHOLD, DEFAULT_COLLECT_MEMORY_THRESHOLD);
+    private static final LongProperty COLLECT_MAX_SIZE = UnisoftConfiguration.getGlobalConfiguration()
+            .getLongProperty(UnisoftConfiguration.COLLECT_MAX_SIZE, -1L);
+    private static final AtomicReferenceArray<ConvertedContext> CONVERTED_CONTEXTS = new AtomicReferenceArray<>(64);
+    /*
+     * Ends the content of an open-ended transfer, compared by identity.
+     */
+    private static final ByteBuffer END_OF_CONTENT = ByteBuffer.allocate(0);
 
     private FluxUtil() {
         // no-op
     }
 
+    /**
+     * Collects the {@link ByteBuffer ByteBuffers} emitted by the stream into a single byte array.
+     * <p>
+     * The buffers are copied into exponentially growing chunks which are copied once into the returned array.
+     *
+     * @param stream the stream of byte buffers to collect
+     * @return a {@link Mono} emitting the collected bytes
+     */
     public static Mono<byte[]> collectBytesInByteBufferStream(Flux<ByteBuffer> stream) {
         return stream
-                .collect(ByteArrayOutputStream::new, FluxUtil::accept)
-                .map(ByteArrayOutputStream::toByteArray);
+                .collect(ByteBufferCollector::new, ByteBufferCollector::write)
+                .map(ByteBufferCollector::toByteArray);
     }
 
-    private static void accept(ByteArrayOutputStream byteOutputStream, ByteBuffer byteBuffer) {
-        try {
-            byteOutputStream.write(byteBufferToArray(byteBuffer));
-        } catch (IOException e) {
-            throw new RuntimeException("Error occurred writing ByteBuffer to ByteArrayOutputStream.", e);
+    /**
+     * Collects the {@link ByteBuffer ByteBuffers} emitted by the stream into a single byte array, expecting the stream
+     * to contain {@code sizeHint} bytes, e.g. the value of a {@code Content-Length} header.
+     * <p>
+     * The destination array is allocated once and each buffer is copied straight into it. If the stream turns out to be
+     * larger than expected, collection continues in growing chunks; if it is smaller, the result is trimmed.
+     *
+     * @param stream   the stream of byte buffers to collect
+     * @param sizeHint the expected number of bytes in the stream
+     * @return a {@link Mono} emitting the collected bytes
+     * @throws IllegalArgumentException if {@code sizeHint} is negative
+     */
+    public static Mono<byte[]> collectBytesInByteBufferStream(Flux<ByteBuffer> stream, long sizeHint) {
+        if (sizeHint < 0) {
+            throw new IllegalArgumentException("'sizeHint' cannot be negative.");
         }
+        return stream
+                .collect(() -> new ByteBufferCollector(sizeHint), ByteBufferCollector::write)
+                .map(ByteBufferCollector::toByteArray);
+    }
+
+    /**
+     * Collects the {@link ByteBuffer ByteBuffers} emitted by the stream, spilling to a temporary file past the memory
+     * threshold configured in the {@link UnisoftConfiguration#getGlobalConfiguration() global configuration}.
+     *
+     * @param stream the stream of byte buffers to collect
+     * @return a {@link Mono} emitting a handle to the collected content
+     * @see #collectBufferedContent(Flux, UnisoftConfiguration)
+     */
+    public static Mono<BufferedContent> collectBufferedContent(Flux<ByteBuffer> stream) {
+        return collectBufferedContent(stream, COLLECT_MEMORY_THRESHOLD.getAsLong(), COLLECT_MAX_SIZE.getAsLong());
+    }
+
+    /**
+     * Collects the {@link ByteBuffer ByteBuffers} emitted by the stream, using the
+     * {@code COLLECT_MEMORY_THRESHOLD} and {@code COLLECT_MAX_SIZE} values of the given configuration. The threshold
+     * defaults to {@value #DEFAULT_COLLECT_MEMORY_THRESHOLD} bytes and the size is unbounded by default.
+     *
+     * @param stream        the stream of byte buffers to collect
+     * @param configuration the configuration to read the limits from
+     * @return a {@link Mono} emitting a handle to the collected content
+     * @see #collectBufferedContent(Flux, long, long)
+     */
+    public static Mono<BufferedContent> collectBufferedContent(Flux<ByteBuffer> stream,
+                                                               UnisoftConfiguration configuration) {
+        return collectBufferedContent(stream,
+                configuration.get(UnisoftConfiguration.COLLECT_MEMORY_THRESHOLD, DEFAULT_COLLECT_MEMORY_THRESHOLD),
+                configuration.get(UnisoftConfiguration.COLLECT_MAX_SIZE, -1L));
+    }
+
+    /**
+     * Collects the {@link ByteBuffer ByteBuffers} emitted by the stream in memory up to {@code memoryThreshold} bytes,
+     * then transparently spills the content to a temporary file.
+     * <p>
+     * If the content grows past {@code maxSize} the returned {@link Mono} fails with an {@link IllegalStateException}
+     * as soon as the limit is crossed. The temporary file is deleted on failure or cancellation, otherwise when the
+     * returned handle is {@link BufferedContent#close() closed}. The buffers are collected on the
+     * {@link Schedulers#boundedElastic() bounded elastic scheduler}, as writes to the temporary file are blocking, so
+     * the stream must not reuse a buffer once emitted.
+     *
+     * @param stream          the stream of byte buffers to collect
+     * @param memoryThreshold the number of bytes kept in memory before spilling to a file
+     * @param maxSize         the maximum number of bytes accepted, unbounded if negative
+     * @return a {@link Mono} emitting a handle to the collected content
+     * @throws IllegalArgumentException if {@code memoryThreshold} is negative
+     */
+    public static Mono<BufferedContent> collectBufferedContent(Flux<ByteBuffer> stream, long memoryThreshold,
+                                                               long maxSize) {
+        if (memoryThreshold < 0) {
+            throw new IllegalArgumentException("'memoryThreshold' cannot be negative.");
+        }
+
+        return Mono.defer(() -> {
+            SpillingByteBufferCollector collector = new SpillingByteBufferCollector(memoryThreshold, maxSize);
+            return stream
+                    // a single buffer in flight, so that the limits bound what the request holds.
+                    .publishOn(Schedulers.boundedElastic(), 1)
+                    .doOnNext(collector::write)
+                    .then(Mono.fromCallable(collector::finish))
+                    .doOnDiscard(BufferedContent.class, BufferedContent::close)
+                    .doOnError(error -> collector.discard())
+                    .doOnCancel(collector::discard);
+        });
     }
 
     /**
@@ -50,6 +159,416 @@ public class FluxUtil {
         return byteArray;
     }
 
+    /**
+     * Copies every {@link ByteBuffer} emitted by the stream into a buffer leased from {@code pool}.
+     * <p>
+     * Subscribers own the emitted buffers and must {@link PooledByteBuffer#release() release} them. Buffers dropped by
+     * the operators added downstream, such as the queue of a {@code publishOn} cancelled by a {@code take}, are
+     * discarded through the discard hook of the final subscriber, which must release them by ending the pipeline with
+     * {@code doOnDiscard(PooledByteBuffer.class, PooledByteBuffer::release)}. Reactor discard hooks only apply to the
+     * operators upstream of them, which is why this operator cannot install it on the subscriber's behalf.
+     *
+     * @param stream the stream of byte buffers to copy
+     * @param pool   the pool to lease buffers from
+     * @return a stream of pooled copies of the source buffers
+     */
+    public static Flux<PooledByteBuffer> copyToPooled(Flux<ByteBuffer> stream, ByteBufferPool pool) {
+        return stream
+                .map(byteBuffer -> {
+                    PooledByteBuffer pooled = pool.lease(byteBuffer.remaining());
+                    pooled.buffer().put(byteBuffer).flip();
+                    return pooled;
+                });
+    }
+
+    /**
+     * Leases a buffer of {@code size} bytes from {@code pool} for the lifetime of the publisher created by
+     * {@code function}. The buffer is released once that publisher completes, fails or is cancelled.
+     *
+     * @param pool     the pool to lease the buffer from
+     * @param size     the number of bytes needed
+     * @param function creates the publisher using the leased buffer
+     * @param <T>      the type emitted by the publisher
+     * @return a {@link Flux} emitting what the created publisher emits
+     */
+    public static <T> Flux<T> usingPooledBuffer(ByteBufferPool pool, int size,
+                                                Function<ByteBuffer, ? extends Publisher<? extends T>> function) {
+        return Flux.using(() -> pool.lease(size), pooled -> function.apply(pooled.buffer()),
+                PooledByteBuffer::release);
+    }
+
+    /**
+     * Reads a region of a file as a stream of read-only {@link ByteBuffer ByteBuffers} of {@code chunkSize} bytes,
+     * the last one possibly being shorter.
+     * <p>
+     * The emitted buffers are slices of memory mapped windows of the file, mapped lazily as downstream requests more
+     * chunks, so no content is copied onto the heap. If a window cannot be mapped the rest of the region is read with
+     * positional reads instead. The region is truncated at the end of the file.
+     *
+     * @param path      the file to read
+     * @param offset    the position of the first byte to read
+     * @param length    the maximum number of bytes to read
+     * @param chunkSize the size of the emitted buffers
+     * @return a {@link Flux} of the file content
+     * @throws IllegalArgumentException if {@code offset} or {@code length} is negative, or {@code chunkSize} is not
+     *                                  positive
+     */
+    public static Flux<ByteBuffer> readFile(Path path, long offset, long length, int chunkSize) {
+        Objects.requireNonNull(path, "'path' cannot be null.");
+        if (offset < 0) {
+            throw new IllegalArgumentException("'offset' cannot be negative.");
+        }
+        if (length < 0) {
+            throw new IllegalArgumentException("'length' cannot be negative.");
+        }
+        if (chunkSize <= 0) {
+            throw new IllegalArgumentException("'chunkSize' must be positive.");
+        }
+
+        return Flux.generate(() -> MappedFileReader.open(path, offset, length, chunkSize), MappedFileReader::next,
+                MappedFileReader::close);
+    }
+
+    /**
+     * Writes the {@link ByteBuffer ByteBuffers} emitted by the stream to the file, one after the other, starting at
+     * {@code position}.
+     * <p>
+     * A single write is outstanding at a time and the next buffer is only requested once the previous one is written,
+     * so memory use is bounded by the size of a buffer rather than the size of the content. Cancelling the returned
+     * {@link Mono} cancels the stream and stops writing.
+     *
+     * @param content  the content to write
+     * @param outFile  the file to write to
+     * @param position the position in the file of the first byte of the content
+     * @return a {@link Mono} completing once all the content is written
+     * @throws IllegalArgumentException if {@code position} is negative
+     */
+    public static Mono<Void> writeFile(Flux<ByteBuffer> content, AsynchronousFileChannel outFile, long position) {
+        Objects.requireNonNull(content, "'content' cannot be null.");
+        Objects.requireNonNull(outFile, "'outFile' cannot be null.");
+        if (position < 0) {
+            throw new IllegalArgumentException("'position' cannot be negative.");
+        }
+
+        return Mono.defer(() -> {
+            final long[] nextPosition = new long[]{position};
+            return writeFileChunks(content.map(buffer -> {
+                FileChunk chunk = new FileChunk(nextPosition[0], buffer);
+                nextPosition[0] += buffer.remaining();
+                return chunk;
+            }), outFile, 1);
+        });
+    }
+
+    /**
+     * Writes chunks that carry their own position in the file, allowing up to {@code maxConcurrentWrites} writes to
+     * be outstanding at once.
+     * <p>
+     * No more than {@code maxConcurrentWrites} chunks are requested from the stream ahead of their writes completing.
+     * Cancelling the returned {@link Mono} cancels the stream and stops writing.
+     *
+     * @param chunks              the chunks to write
+     * @param outFile             the file to write to
+     * @param maxConcurrentWrites the maximum number of outstanding writes
+     * @return a {@link Mono} completing once all the chunks are written
+     * @throws IllegalArgumentException if {@code maxConcurrentWrites} is not positive
+     */
+    public static Mono<Void> writeFileChunks(Flux<FileChunk> chunks, AsynchronousFileChannel outFile,
+                                             int maxConcurrentWrites) {
+        Objects.requireNonNull(chunks, "'chunks' cannot be null.");
+        Objects.requireNonNull(outFile, "'outFile' cannot be null.");
+        if (maxConcurrentWrites <= 0) {
+            throw new IllegalArgumentException("'maxConcurrentWrites' must be positive.");
+        }
+
+        return chunks
+                .flatMap(chunk -> Mono.<Void>create(sink ->
+                        FileWriteHandler.write(outFile, chunk.buffer(), chunk.position(), sink)), maxConcurrentWrites)
+                .then();
+    }
+
+    /**
+     * Exposes a stream of {@link ByteBuffer ByteBuffers} as an {@link InputStream}, without collecting it.
+     * <p>
+     * The stream is subscribed to on the first read and at most {@code prefetch} buffers are requested ahead of the
+     * reader. Closing the returned {@link InputStream} cancels the subscription. Reads block until content is
+     * available, the returned stream must not be read from a non-blocking thread.
+     *
+     * @param stream   the stream of byte buffers to read
+     * @param prefetch the maximum number of buffers requested ahead of the reader
+     * @return an {@link InputStream} of the content
+     * @throws IllegalArgumentException if {@code prefetch} is not positive
+     */
+    public static InputStream toInputStream(Flux<ByteBuffer> stream, int prefetch) {
+        Objects.requireNonNull(stream, "'stream' cannot be null.");
+        if (prefetch <= 0) {
+            throw new IllegalArgumentException("'prefetch' must be positive.");
+        }
+        return new FluxInputStream(stream, prefetch);
+    }
+
+    /**
+     * Creates a stream of {@link ByteBuffer ByteBuffers} from content written to an {@link OutputStream}.
+     * <p>
+     * On each subscription {@code writer} is run on {@link Schedulers#boundedElastic()} with an {@link OutputStream}
+     * emitting chunks of {@code chunkSize} bytes. Writes block until downstream requests more chunks, and fail with an
+     * {@link IOException} once downstream cancelled. The stream completes once the writer returns.
+     *
+     * @param writer    writes the content to the given {@link OutputStream}
+     * @param chunkSize the size of the emitted buffers
+     * @return a {@link Flux} of the written content
+     * @throws IllegalArgumentException if {@code chunkSize} is not positive
+     */
+    public static Flux<ByteBuffer> fromOutputStream(ContentWriter writer, int chunkSize) {
+        Objects.requireNonNull(writer, "'writer' cannot be null.");
+        if (chunkSize <= 0) {
+            throw new IllegalArgumentException("'chunkSize' must be positive.");
+        }
+
+        return Flux.create(sink -> {
+            FluxOutputStream outputStream = new FluxOutputStream(sink, chunkSize);
+            Schedulers.boundedElastic().schedule(() -> {
+                try {
+                    writer.write(outputStream);
+                    outputStream.close();
+                } catch (IOException | RuntimeException e) {
+                    sink.error(e);
+                }
+            });
+        });
+    }
+
+    /**
+     * Regroups the {@link ByteBuffer ByteBuffers} emitted by the stream into buffers of {@code chunkSize} bytes, the
+     * last one possibly being shorter.
+     * <p>
+     * Buffers larger than {@code chunkSize} are sliced without copying and share content with the source buffers.
+     * Smaller buffers are coalesced by copying them into a new chunk.
+     *
+     * @param stream    the stream of byte buffers to regroup
+     * @param chunkSize the size of the emitted buffers
+     * @return a {@link Flux} of buffers of {@code chunkSize} bytes
+     * @throws IllegalArgumentException if {@code chunkSize} is not positive
+     */
+    public static Flux<ByteBuffer> rechunk(Flux<ByteBuffer> stream, int chunkSize) {
+        if (chunkSize <= 0) {
+            throw new IllegalArgumentException("'chunkSize' must be positive.");
+        }
+
+        return Flux.defer(() -> {
+            ByteBufferRechunker rechunker = new ByteBufferRechunker(chunkSize);
+            return stream
+                    .concatMapIterable(rechunker::add)
+                    .concatWith(Flux.defer(() -> Flux.fromIterable(rechunker.flush())));
+        });
+    }
+
+    /**
+     * Same as {@link #rechunk(Flux, int)}, except that a partially filled chunk is emitted once it has been pending
+     * for {@code maxLatency}, so that slow interactive streams don't stall waiting for a chunk to fill up.
+     * <p>
+     * The delay runs from the first byte of each pending chunk, and no timer runs while no bytes are pending.
+     *
+     * @param stream     the stream of byte buffers to regroup
+     * @param chunkSize  the maximum size of the emitted buffers
+     * @param maxLatency the maximum time bytes are held before being emitted
+     * @return a {@link Flux} of buffers of at most {@code chunkSize} bytes
+     * @throws IllegalArgumentException if {@code chunkSize} is not positive or {@code maxLatency} is not positive
+     */
+    public static Flux<ByteBuffer> rechunk(Flux<ByteBuffer> stream, int chunkSize, Duration maxLatency) {
+        if (chunkSize <= 0) {
+            throw new IllegalArgumentException("'chunkSize' must be positive.");
+        }
+        if (maxLatency == null || maxLatency.isZero() || maxLatency.isNegative()) {
+            throw new IllegalArgumentException("'maxLatency' must be positive.");
+        }
+
+        return Flux.defer(() -> {
+            ByteBufferRechunker rechunker = new ByteBufferRechunker(chunkSize);
+            DirectProcessor<Long> timers = DirectProcessor.create();
+            // every pending chunk arms a timer from its first byte, replacing the previous one, a negative value
+            // disarming it. Expirations are merged in the stream, which serializes them with the data, and carry the
+            // chunk they were armed for so that late ones are ignored once that chunk was emitted.
+            return stream
+                    .publish(shared -> Flux.<Object>merge(shared, timers
+                            .switchMap(chunk -> chunk < 0
+                                    ? Mono.<Long>empty()
+                                    : Mono.delay(maxLatency).thenReturn(chunk))
+                            .takeUntilOther(shared.ignoreElements())))
+                    .concatMapIterable(signal -> {
+                        if (signal instanceof Long) {
+                            return rechunker.startedChunks() == (Long) signal
+                                    ? rechunker.flush()
+                                    : Collections.<ByteBuffer>emptyList();
+                        }
+                        final long started = rechunker.startedChunks();
+                        final List<ByteBuffer> chunks = rechunker.add((ByteBuffer) signal);
+                        if (rechunker.startedChunks() != started) {
+                            timers.onNext(rechunker.startedChunks());
+                        } else if (!chunks.isEmpty() && !rechunker.hasPending()) {
+                            timers.onNext(-1L);
+                        }
+                        return chunks;
+                    })
+                    .concatWith(Flux.defer(() -> Flux.fromIterable(rechunker.flush())));
+        });
+    }
+
+    /**
+     * Computes a checksum or digest of the {@link ByteBuffer ByteBuffers} emitted by the stream as they pass through.
+     * <p>
+     * Buffers are fed to the algorithm directly, without being copied nor having their position moved.
+     *
+     * @param stream    the stream of byte buffers to digest
+     * @param algorithm the algorithm to use
+     * @return the content paired with a {@link Mono} of its digest
+     */
+    public static DigestedContent digest(Flux<ByteBuffer> stream, ChecksumAlgorithm algorithm) {
+        Objects.requireNonNull(algorithm, "'algorithm' cannot be null.");
+        MonoProcessor<byte[]> digest = MonoProcessor.create();
+
+        Flux<ByteBuffer> content = Flux.defer(() -> {
+            ChecksumAlgorithm.Digester digester = algorithm.newDigester();
+            return stream
+                    .doOnNext(digester::update)
+                    .doOnComplete(() -> {
+                        if (!digest.isTerminated()) {
+                            digest.onNext(digester.digest());
+                        }
+                    })
+                    .doOnError(error -> {
+                        if (!digest.isTerminated()) {
+                            digest.onError(error);
+                        }
+                    })
+                    .doOnCancel(() -> {
+                        if (!digest.isTerminated()) {
+                            digest.onError(new CancellationException("The content was cancelled before its end."));
+                        }
+                    });
+        });
+        return new DigestedContent(content, digest);
+    }
+
+    /**
+     * Computes a checksum or digest of the {@link ByteBuffer ByteBuffers} emitted by the stream as they pass through,
+     * and fails the stream on completion if it doesn't match {@code expected}.
+     *
+     * @param stream    the stream of byte buffers to verify
+     * @param algorithm the algorithm to use
+     * @param expected  the expected digest
+     * @return the content, failing with an {@link IllegalStateException} on completion if the digest doesn't match
+     */
+    public static Flux<ByteBuffer> verifyDigest(Flux<ByteBuffer> stream, ChecksumAlgorithm algorithm,
+                                                byte[] expected) {
+        Objects.requireNonNull(algorithm, "'algorithm' cannot be null.");
+        Objects.requireNonNull(expected, "'expected' cannot be null.");
+
+        return Flux.defer(() -> {
+            ChecksumAlgorithm.Digester digester = algorithm.newDigester();
+            return stream
+                    .doOnNext(digester::update)
+                    .concatWith(Mono.defer(() -> {
+                        byte[] actual = digester.digest();
+                        return MessageDigest.isEqual(expected, actual)
+                                ? Mono.empty()
+                                : Mono.error(new IllegalStateException(algorithm + " mismatch, expected "
+                                + Base64Util.encodeToString(expected) + " but was "
+                                + Base64Util.encodeToString(actual) + "."));
+                    }));
+        });
+    }
+
+    /**
+     * Transfers a range of bytes by splitting it in sub-ranges fetched concurrently, and emits their content as a
+     * single stream in the original order.
+     * <p>
+     * At most {@link ParallelTransferOptions#getParallelism() parallelism} sub-ranges are fetched at once. Sub-ranges
+     * received ahead of their turn are held in a reorder buffer bounded by {@link
+     * ParallelTransferOptions#getMaxBufferedChunksPerRange() maxBufferedChunksPerRange} buffers each, past which their
+     * fetch is back-pressured. A failed sub-range, or one whose content is shorter than requested, is retried from the
+     * first byte that wasn't received.
+     * <p>
+     * An {@link ByteRange#isOpenEnded() open-ended} range is transferred up to the end of the content, which is the
+     * end of the first sub-range whose content is shorter than requested, possibly empty. The transfer then completes
+     * and cancels the sub-ranges fetched ahead, whose failures, e.g. for starting past the end of the content, are
+     * ignored.
+     *
+     * @param range   the range to transfer
+     * @param fetcher fetches the content of a sub-range
+     * @param options the transfer options
+     * @return a {@link Flux} of the content of the range
+     */
+    public static Flux<ByteBuffer> transferRanges(ByteRange range, Function<ByteRange, Flux<ByteBuffer>> fetcher,
+                                                  ParallelTransferOptions options) {
+        Objects.requireNonNull(range, "'range' cannot be null.");
+        Objects.requireNonNull(fetcher, "'fetcher' cannot be null.");
+        Objects.requireNonNull(options, "'options' cannot be null.");
+        final long rangeSize = options.getRangeSize();
+        final long end = range.isOpenEnded() ? Long.MAX_VALUE : range.offset() + range.length();
+
+        Flux<ByteRange> subRanges = Flux.generate(range::offset, (offset, sink) -> {
+            if (offset >= end) {
+                sink.complete();
+                return offset;
+            }
+            long length = Math.min(rangeSize, end - offset);
+            sink.next(new ByteRange(offset, length));
+            return offset + length;
+        });
+
+        if (!range.isOpenEnded()) {
+            return subRanges.flatMapSequential(
+                    subRange -> fetchRange(subRange, fetcher, new long[1], options.getMaxRetriesPerRange(), false),
+                    options.getParallelism(), options.getMaxBufferedChunksPerRange());
+        }
+
+        // failures are carried as values and raised in order, so that those of the sub-ranges past the end of the
+        // content, fetched ahead, are dropped along with them once the end is reached.
+        return subRanges.flatMapSequential(
+                subRange -> fetchRange(subRange, fetcher, new long[1], options.getMaxRetriesPerRange(), true)
+                        .cast(Object.class)
+                        .onErrorResume(Mono::just),
+                options.getParallelism(), options.getMaxBufferedChunksPerRange())
+                .handle((signal, sink) -> {
+                    if (signal == END_OF_CONTENT) {
+                        sink.complete();
+                    } else if (signal instanceof Throwable) {
+                        sink.error((Throwable) signal);
+                    } else {
+                        sink.next((ByteBuffer) signal);
+                    }
+                });
+    }
+
+    /*
+     * Fetches a sub-range, retrying from the first byte not received. A sub-range shorter than requested fails, or
+     * ends with END_OF_CONTENT if it may hold the end of the content.
+     */
+    private static Flux<ByteBuffer> fetchRange(ByteRange range, Function<ByteRange, Flux<ByteBuffer>> fetcher,
+                                               long[] received, int retries, boolean mayEnd) {
+        return Flux.defer(() -> {
+            // a range fully received before failing is not requested again.
+            if (received[0] == range.length()) {
+                return Flux.<ByteBuffer>empty();
+            }
+            return fetcher.apply(new ByteRange(range.offset() + received[0], range.length() - received[0]))
+                    .doOnNext(buffer -> received[0] += buffer.remaining())
+                    .concatWith(Mono.defer(() -> {
+                        if (received[0] == range.length()) {
+                            return Mono.empty();
+                        }
+                        if (mayEnd && received[0] < range.length()) {
+                            return Mono.just(END_OF_CONTENT);
+                        }
+                        return Mono.error(new IllegalStateException("Received " + received[0] + " bytes of the "
+                                + range.length() + " bytes of range " + range + "."));
+                    }));
+        }).onErrorResume(error -> retries > 0 && received[0] <= range.length()
+                ? fetchRange(range, fetcher, received, retries - 1, mayEnd)
+                : Flux.error(error));
+    }
+
     /**
      * Checks if a type is Flux&lt;ByteBuffer&gt;.
      *
@@ -89,6 +608,14 @@ public class FluxUtil {
      * <p>
      * If the reactor context is empty, {@link Context#NONE} will be used to call the lambda function
      * </p>
+     * <p>
+     * If the reactor context holds a {@link Deadline}, the lambda function is not called once it passed, and the
+     * service call is bounded by it, see {@link #applyDeadline(Mono)}.
+     * </p>
+     * <p>
+     * The Unisoft context is the {@link ContextPropagation#current() current context} while the lambda function runs,
+     * so that the tasks it hands to executors wrapped by {@link ContextPropagation} run with it.
+     * </p>
      *
      * @param serviceCall       serviceCall The lambda function that makes the service call into which unisoft context will be
      *                          passed
@@ -99,42 +626,249 @@ public class FluxUtil {
     public static <T> Mono<T> withContext(Function<Context, Mono<T>> serviceCall,
                                           Map<String, String> contextAttributes) {
         return Mono.subscriberContext()
-                .map(context -> {
-                    final Context[] unisoftContext = new Context[]{Context.NONE};
-
-                    if (!CoreUtil.isNullOrEmpty(contextAttributes)) {
-                        contextAttributes.forEach((key, value) -> unisoftContext[0] = unisoftContext[0].addData(key, value));
+                .flatMap(context -> {
+                    final Deadline deadline = context.getOrDefault(Deadline.KEY, null);
+                    if (deadline == null) {
+                        return callWithContext(serviceCall, toUnisoftContext(context, contextAttributes));
                     }
+                    return withinDeadline(deadline, Duration.ZERO,
+                            () -> callWithContext(serviceCall, toUnisoftContext(context, contextAttributes)));
+                });
+    }
+
+    /*
+     * Calls the service call with the context made current, so that the tasks it hands to executors wrapped by
+     * ContextPropagation carry the subscriber context.
+     */
+    private static <T> Mono<T> callWithContext(Function<Context, Mono<T>> serviceCall, Context context) {
+        try (ContextPropagation.Scope ignored = ContextPropagation.makeCurrent(context)) {
+            return serviceCall.apply(context);
+        }
+    }
+
+    /**
+     * Bounds the mono by the {@link Deadline} of its subscriber context, if any: it fails with a {@link
+     * TimeoutException} without being subscribed to if the deadline already passed, and with a {@link
+     * TimeoutException} if it does not complete before the deadline.
+     *
+     * @param mono the mono to bound
+     * @param <T>  the type of the value
+     * @return the bounded mono
+     */
+    public static <T> Mono<T> applyDeadline(Mono<T> mono) {
+        return applyDeadline(mono, Duration.ZERO);
+    }
+
+    /**
+     * Bounds the mono by the {@link Deadline} of its subscriber context, if any: it fails with a {@link
+     * TimeoutException} without being subscribed to if less than {@code minimumTime} is left before the deadline, and
+     * with a {@link TimeoutException} if it does not complete before the deadline.
+     * <p>
+     * To leave time to handle the outcome of the mono, the deadline seen by the mono itself can be shrunk with
+     * {@link #shrinkDeadline(Duration)}: {@code applyDeadline(call.subscriberContext(shrinkDeadline(margin)))}.
+     *
+     * @param mono        the mono to bound
+     * @param minimumTime the time the mono needs at the very least, below which it is not worth starting
+     * @param <T>         the type of the value
+     * @return the bounded mono
+     */
+    public static <T> Mono<T> applyDeadline(Mono<T> mono, Duration minimumTime) {
+        Objects.requireNonNull(mono, "'mono' cannot be null.");
+        Objects.requireNonNull(minimumTime, "'minimumTime' cannot be null.");
+        return Mono.subscriberContext()
+                .flatMap(context -> {
+                    final Deadline deadline = context.getOrDefault(Deadline.KEY, null);
+                    return deadline == null ? mono : withinDeadline(deadline, minimumTime, () -> mono);
+                });
+    }
+
+    /**
+     * Bounds the flux by the {@link Deadline} of its subscriber context, if any, see {@link #applyDeadline(Mono)}.
+     *
+     * @param flux the flux to bound
+     * @param <T>  the type of the values
+     * @return the bounded flux
+     */
+    public static <T> Flux<T> applyDeadline(Flux<T> flux) {
+        return applyDeadline(flux, Duration.ZERO);
+    }
 
-                    if (!context.isEmpty()) {
-                        context.stream().forEach(entry ->
-                                unisoftContext[0] = unisoftContext[0].addData(entry.getKey(), entry.getValue()));
+    /**
+     * Bounds the flux by the {@link Deadline} of its subscriber context, if any, see {@link #applyDeadline(Mono,
+     * Duration)}. The whole flux, not each value, must complete before the deadline.
+     *
+     * @param flux        the flux to bound
+     * @param minimumTime the time the flux needs at the very least, below which it is not worth starting
+     * @param <T>         the type of the values
+     * @return the bounded flux
+     */
+    public static <T> Flux<T> applyDeadline(Flux<T> flux, Duration minimumTime) {
+        Objects.requireNonNull(flux, "'flux' cannot be null.");
+        Objects.requireNonNull(minimumTime, "'minimumTime' cannot be null.");
+        return Mono.subscriberContext()
+                .flatMapMany(context -> {
+                    final Deadline deadline = context.getOrDefault(Deadline.KEY, null);
+                    if (deadline == null) {
+                        return flux;
+                    }
+                    final long remaining = deadline.remainingNanos();
+                    if (remaining <= minimumTime.toNanos()) {
+                        return Flux.error(deadlineExceeded());
                     }
+                    // Flux#timeout(Duration) bounds the time between values, the timer is re-armed with what is left.
+                    return flux.timeout(Mono.delay(Duration.ofNanos(remaining)),
+                            value -> Mono.delay(deadline.remaining()));
+                });
+    }
+
+    /**
+     * Creates a function adding a {@link Deadline} to the subscriber context, to be used with {@link
+     * Mono#subscriberContext(Function)} or {@link Flux#subscriberContext(Function)}. An earlier deadline already in
+     * the subscriber context is kept, a callee cannot be given more time than its caller.
+     *
+     * @param deadline the deadline
+     * @return the function adding the deadline to the subscriber context
+     */
+    public static Function<reactor.util.context.Context, reactor.util.context.Context> withDeadline(
+            Deadline deadline) {
+        Objects.requireNonNull(deadline, "'deadline' cannot be null.");
+        return context -> {
+            final Deadline current = context.getOrDefault(Deadline.KEY, null);
+            return current != null && current.compareTo(deadline) <= 0 ? context : context.put(Deadline.KEY, deadline);
+        };
+    }
+
+    /**
+     * Creates a function shrinking the {@link Deadline} of the subscriber context, if any, by the given margin, see
+     * {@link Deadline#shrink(Duration)}. To be used with {@link Mono#subscriberContext(Function)} or {@link
+     * Flux#subscriberContext(Function)} on downstream calls.
+     *
+     * @param margin the time to reserve
+     * @return the function shrinking the deadline of the subscriber context
+     */
+    public static Function<reactor.util.context.Context, reactor.util.context.Context> shrinkDeadline(
+            Duration margin) {
+        Objects.requireNonNull(margin, "'margin' cannot be null.");
+        return context -> {
+            final Deadline current = context.getOrDefault(Deadline.KEY, null);
+            return current == null ? context : context.put(Deadline.KEY, current.shrink(margin));
+        };
+    }
+
+    private static <T> Mono<T> withinDeadline(Deadline deadline, Duration minimumTime, Supplier<Mono<T>> work) {
+        final long remaining = deadline.remainingNanos();
+        if (remaining <= minimumTime.toNanos()) {
+            return Mono.error(deadlineExceeded());
+        }
+        return work.get().timeout(Duration.ofNanos(remaining));
+    }
+
+    private static TimeoutException deadlineExceeded() {
+        return new TimeoutException("Deadline exceeded, the work was not started.");
+    }
+
+    /*
+     * Converts the reactor context, on top of the context attributes, into a single compact Unisoft context node.
+     *
+     * Conversions of reactor contexts without attributes are memoized by identity, reactor contexts being immutable.
+     * The memo references both contexts weakly, so that it doesn't retain per-request contexts nor their values.
+     */
+    static Context toUnisoftContext(reactor.util.context.Context context, Map<String, String> contextAttributes) {
+        final boolean noAttributes = CoreUtil.isNullOrEmpty(contextAttributes);
+        if (noAttributes && context.isEmpty()) {
+            return Context.NONE;
+        }
+
+        final int slot = noAttributes ? System.identityHashCode(context) & (CONVERTED_CONTEXTS.length() - 1) : -1;
+        if (noAttributes) {
+            final ConvertedContext cached = CONVERTED_CONTEXTS.get(slot);
+            if (cached != null && cached.get() == context) {
+                final Context converted = cached.converted.get();
+                if (converted != null) {
+                    return converted;
+                }
+            }
+        }
 
-                    return unisoftContext[0];
-                })
-                .flatMap(serviceCall);
+        final int size = (noAttributes ? 0 : contextAttributes.size()) + context.size();
+        final Object[] keys = new Object[size];
+        final Object[] values = new Object[size];
+        final int[] index = new int[1];
+        if (!noAttributes) {
+            contextAttributes.forEach((key, value) -> {
+                keys[index[0]] = key;
+                values[index[0]++] = value;
+            });
+        }
+        context.stream().forEach(entry -> {
+            keys[index[0]] = entry.getKey();
+            values[index[0]++] = entry.getValue();
+        });
+
+        final Context converted = Context.compact(Context.NONE, keys, values, index[0]);
+        if (noAttributes) {
+            CONVERTED_CONTEXTS.set(slot, new ConvertedContext(context, converted));
+        }
+        return converted;
     }
 
     /**
      * Converts an Unisoft context to Reactor context. If the Unisoft context is {@code null} or empty, {@link
      * reactor.util.context.Context#empty()} will be returned.
+     * <p>
+     * The returned context is a view of the Unisoft context, created in constant time without copying its entries.
+     * Entries with a {@code null} value are hidden as Reactor's context doesn't allow null values.
      *
      * @param context The Unisoft context.
      * @return The Reactor context.
      */
     public static reactor.util.context.Context toReactorContext(Context context) {
-        if (context == null) {
+        if (context == null || context == Context.NONE) {
             return reactor.util.context.Context.empty();
         }
 
-        // Filter out null value entries as Reactor's context doesn't allow null values.
-        Map<Object, Object> contextValues = context.getValues().entrySet().stream()
-                .filter(kvp -> kvp.getValue() != null)
-                .collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue));
+        return new ReactorContextView(context, reactor.util.context.Context.empty());
+    }
 
-        return CoreUtil.isNullOrEmpty(contextValues)
-                ? reactor.util.context.Context.empty()
-                : reactor.util.context.Context.of(contextValues);
+    /**
+     * Creates a function layering an Unisoft context on top of the subscriber context, to be used with {@link
+     * Mono#subscriberContext(Function)} or {@link Flux#subscriberContext(Function)}.
+     * <p>
+     * Unlike passing {@link #toReactorContext(Context)} to {@link Mono#subscriberContext(reactor.util.context.Context)},
+     * which copies every entry into the subscriber context, the layering is done in constant time: lookups check the
+     * Unisoft context first, then the subscriber context.
+     *
+     * @param context The Unisoft context.
+     * @return The function layering the Unisoft context on top of the subscriber context.
+     */
+    public static Function<reactor.util.context.Context, reactor.util.context.Context> withUnisoftContext(
+            Context context) {
+        if (context == null || context == Context.NONE) {
+            return Function.identity();
+        }
+        return subscriberContext -> new ReactorContextView(context, subscriberContext);
+    }
+
+    /**
+     * Exposes a Reactor context as an Unisoft context, without copying its entries. Lookups are delegated to the
+     * Reactor context. If the Reactor context is empty, {@link Context#NONE} will be returned.
+     *
+     * @param context The Reactor context.
+     * @return The Unisoft context.
+     */
+    public static Context toUnisoftContext(reactor.util.context.Context context) {
+        return context == null ? Context.NONE : Context.view(context);
+    }
+
+    /*
+     * Memoized conversion of a reactor context, referencing both contexts weakly.
+     */
+    private static final class ConvertedContext extends WeakReference<reactor.util.context.Context> {
+        private final WeakReference<Context> converted;
+
+        ConvertedContext(reactor.util.context.Context source, Context converted) {
+            super(source);
+            this.converted = new WeakReference<>(converted);
+        }
     }
 }
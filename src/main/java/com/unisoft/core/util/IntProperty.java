@@ -0,0 +1,37 @@
+package com.unisoft.core.util;
+
+import java.util.function.IntSupplier;
+
+/**
+ * A handle to an {@code int} configuration, see {@link ConfigurationProperty}.
+ *
+ * @author omar.H.Ajmi
+ * @since 16/10/2026
+ */
+public final class IntProperty extends ConfigurationProperty implements IntSupplier {
+    private final int defaultValue;
+
+    IntProperty(UnisoftConfiguration configuration, String name, int defaultValue) {
+        super(configuration, name);
+        this.defaultValue = defaultValue;
+    }
+
+    /**
+     * @return the value of the configuration, or the default value if it isn't set
+     * @throws NumberFormatException if the value is not an {@code int}
+     */
+    @Override
+    public int getAsInt() {
+        return (int) state().primitive;
+    }
+
+    @Override
+    State parse(ConfigurationSnapshot snapshot, String value) {
+        return new State(snapshot, value, Integer.parseInt(value), null);
+    }
+
+    @Override
+    State parseDefault(ConfigurationSnapshot snapshot) {
+        return new State(snapshot, null, defaultValue, null);
+    }
+}
@@ -0,0 +1,37 @@
+package com.unisoft.core.util;
+
+import java.util.function.LongSupplier;
+
+/**
+ * A handle to a {@code long} configuration, see {@link ConfigurationProperty}.
+ *
+ * @author omar.H.Ajmi
+ * @since 16/10/2026
+ */
+public final class LongProperty extends ConfigurationProperty implements LongSupplier {
+    private final long defaultValue;
+
+    LongProperty(UnisoftConfiguration configuration, String name, long defaultValue) {
+        super(configuration, name);
+        this.defaultValue = defaultValue;
+    }
+
+    /**
+     * @return the value of the configuration, or the default value if it isn't set
+     * @throws NumberFormatException if the value is not a {@code long}
+     */
+    @Override
+    public long getAsLong() {
+        return state().primitive;
+    }
+
+    @Override
+    State parse(ConfigurationSnapshot snapshot, String value) {
+        return new State(snapshot, value, Long.parseLong(value), null);
+    }
+
+    @Override
+    State parseDefault(ConfigurationSnapshot snapshot) {
+        return new State(snapshot, null, defaultValue, null);
+    }
+}
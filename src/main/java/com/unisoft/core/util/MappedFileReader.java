@@ -0,0 +1,122 @@
+package com.unisoft.core.util;
+
+import com.unisoft.core.util.log.LogUtil;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import reactor.core.publisher.SynchronousSink;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Generator state used by {@link FluxUtil#readFile(Path, long, long, int)}.
+ * <p>
+ * The file is mapped one window at a time, only when the previous window has been fully emitted, and each emitted
+ * chunk is a read-only slice of the current window. A window is dropped as soon as the next one is mapped, leaving it
+ * to be unmapped once downstream releases the slices it still holds. If a window cannot be mapped, e.g. because the
+ * address space is exhausted, the remaining content is read with positional {@link FileChannel} reads instead.
+ *
+ * @author omar.H.Ajmi
+ * @since 16/10/2026
+ */
+final class MappedFileReader implements AutoCloseable {
+    static final int WINDOW_SIZE = 64 * 1024 * 1024;
+    private static final Logger LOGGER = LoggerFactory.getLogger(MappedFileReader.class);
+
+    private final FileChannel channel;
+    private final int chunkSize;
+    private final long end;
+    private long position;
+    private MappedByteBuffer window;
+    private boolean mappingFailed;
+
+    private MappedFileReader(FileChannel channel, long offset, long length, int chunkSize) throws IOException {
+        this.channel = channel;
+        this.chunkSize = chunkSize;
+        this.position = offset;
+        final long size = channel.size();
+        // compared by subtraction, offset + length overflowing when reading to the end with Long.MAX_VALUE.
+        this.end = length > size - offset ? size : offset + length;
+    }
+
+    static MappedFileReader open(Path path, long offset, long length, int chunkSize) throws IOException {
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.READ);
+        try {
+            return new MappedFileReader(channel, offset, length, chunkSize);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    MappedFileReader next(SynchronousSink<ByteBuffer> sink) {
+        if (position >= end) {
+            sink.complete();
+            return this;
+        }
+
+        try {
+            int length = (int) Math.min(chunkSize, end - position);
+            ByteBuffer chunk = mappingFailed ? read(length) : slice(length);
+            if (!chunk.hasRemaining()) {
+                // the file was truncated since it was opened.
+                sink.complete();
+                return this;
+            }
+            position += chunk.remaining();
+            sink.next(chunk);
+        } catch (IOException e) {
+            sink.error(new UncheckedIOException(e));
+        }
+        return this;
+    }
+
+    private ByteBuffer slice(int length) throws IOException {
+        if (window == null || !window.hasRemaining()) {
+            window = null;
+            // keep windows a multiple of the chunk size so that no chunk straddles two windows.
+            long windowSize = Math.min(end - position, Math.max(chunkSize, (long) (WINDOW_SIZE / chunkSize) * chunkSize));
+            try {
+                window = channel.map(FileChannel.MapMode.READ_ONLY, position, windowSize);
+            } catch (IOException e) {
+                LogUtil.warn(LOGGER, "Failed to map file window at position {}, falling back to positional reads.",
+                        position, e);
+                mappingFailed = true;
+                return read(length);
+            }
+        }
+
+        int windowPosition = window.position();
+        window.limit(windowPosition + length);
+        ByteBuffer chunk = window.slice().asReadOnlyBuffer();
+        window.position(windowPosition + length);
+        window.limit(window.capacity());
+        return chunk;
+    }
+
+    private ByteBuffer read(int length) throws IOException {
+        ByteBuffer chunk = ByteBuffer.allocate(length);
+        while (chunk.hasRemaining()) {
+            int read = channel.read(chunk, position + chunk.position());
+            if (read < 0) {
+                break;
+            }
+        }
+        return chunk.flip();
+    }
+
+    @Override
+    public void close() {
+        window = null;
+        try {
+            channel.close();
+        } catch (IOException e) {
+            LogUtil.warn(LOGGER, "Failed to close file channel.", e);
+        }
+    }
+}
@@ -1,5 +1,7 @@
 package com.unisoft.core.util;
 
+import java.util.Map;
+import java.util.function.Consumer;
 import java.util.function.Function;
 
 /**
@@ -29,6 +31,31 @@ public class NoopConfiguration extends UnisoftConfiguration {
         return this;
     }
 
+    @Override
+    public NoopConfiguration update(Consumer<Map<String, String>> mutation) {
+        return this;
+    }
+
+    @Override
+    public NoopConfiguration putAll(Map<String, String> configurations) {
+        return this;
+    }
+
+    @Override
+    public ConfigurationSnapshot snapshot() {
+        return ConfigurationSnapshot.EMPTY;
+    }
+
+    @Override
+    public long getVersion() {
+        return 0;
+    }
+
+    @Override
+    public NoopConfiguration addListener(ConfigurationListener listener) {
+        return this;
+    }
+
     @Override
     public String remove(String name) {
         return null;
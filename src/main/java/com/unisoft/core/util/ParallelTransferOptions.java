@@ -0,0 +1,106 @@
+package com.unisoft.core.util;
+
+/**
+ * Options of {@link FluxUtil#transferRanges(ByteRange, java.util.function.Function, ParallelTransferOptions)}.
+ *
+ * @author omar.H.Ajmi
+ * @since 16/10/2026
+ */
+public final class ParallelTransferOptions {
+    private long rangeSize = 4 * 1024 * 1024;
+    private int parallelism = 4;
+    private int maxRetriesPerRange = 3;
+    private int maxBufferedChunksPerRange = 16;
+
+    /**
+     * @return the size of the sub-ranges the transfer is split into
+     */
+    public long getRangeSize() {
+        return rangeSize;
+    }
+
+    /**
+     * Sets the size of the sub-ranges the transfer is split into, 4 MiB by default.
+     *
+     * @param rangeSize the size of the sub-ranges
+     * @return the updated options
+     * @throws IllegalArgumentException if {@code rangeSize} is not positive
+     */
+    public ParallelTransferOptions setRangeSize(long rangeSize) {
+        if (rangeSize <= 0) {
+            throw new IllegalArgumentException("'rangeSize' must be positive.");
+        }
+        this.rangeSize = rangeSize;
+        return this;
+    }
+
+    /**
+     * @return the maximum number of sub-ranges fetched concurrently
+     */
+    public int getParallelism() {
+        return parallelism;
+    }
+
+    /**
+     * Sets the maximum number of sub-ranges fetched concurrently, 4 by default.
+     *
+     * @param parallelism the maximum number of concurrent fetches
+     * @return the updated options
+     * @throws IllegalArgumentException if {@code parallelism} is not positive
+     */
+    public ParallelTransferOptions setParallelism(int parallelism) {
+        if (parallelism <= 0) {
+            throw new IllegalArgumentException("'parallelism' must be positive.");
+        }
+        this.parallelism = parallelism;
+        return this;
+    }
+
+    /**
+     * @return the number of times a failed sub-range is fetched again
+     */
+    public int getMaxRetriesPerRange() {
+        return maxRetriesPerRange;
+    }
+
+    /**
+     * Sets the number of times a failed sub-range is fetched again, 3 by default. A retry only fetches the part of the
+     * sub-range that wasn't received yet.
+     *
+     * @param maxRetriesPerRange the number of retries
+     * @return the updated options
+     * @throws IllegalArgumentException if {@code maxRetriesPerRange} is negative
+     */
+    public ParallelTransferOptions setMaxRetriesPerRange(int maxRetriesPerRange) {
+        if (maxRetriesPerRange < 0) {
+            throw new IllegalArgumentException("'maxRetriesPerRange' cannot be negative.");
+        }
+        this.maxRetriesPerRange = maxRetriesPerRange;
+        return this;
+    }
+
+    /**
+     * @return the maximum number of buffers held for a sub-range that is received ahead of its turn
+     */
+    public int getMaxBufferedChunksPerRange() {
+        return maxBufferedChunksPerRange;
+    }
+
+    /**
+     * Sets the maximum number of buffers held for a sub-range that is received ahead of its turn, 16 by default.
+     * <p>
+     * Along with the parallelism this bounds the reorder buffer: no more than {@code parallelism *
+     * maxBufferedChunksPerRange} buffers are held at once.
+     *
+     * @param maxBufferedChunksPerRange the maximum number of buffers held per sub-range
+     * @return the updated options
+     * @throws IllegalArgumentException if {@code maxBufferedChunksPerRange} is not positive
+     */
+    public ParallelTransferOptions setMaxBufferedChunksPerRange(int maxBufferedChunksPerRange) {
+        if (maxBufferedChunksPerRange <= 0) {
+            throw new IllegalArgumentException("'maxBufferedChunksPerRange' must be positive.");
+        }
+        this.maxBufferedChunksPerRange = maxBufferedChunksPerRange;
+        return this;
+    }
+}
@@ -0,0 +1,139 @@
+package com.unisoft.core.util;
+
+import com.unisoft.core.util.log.LogUtil;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.ref.Cleaner;
+import java.nio.ByteBuffer;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+
+/**
+ * A reference counted {@link ByteBuffer} leased from a {@link ByteBufferPool}.
+ * <p>
+ * A freshly leased buffer has a reference count of one. Every {@link #retain()} must be matched by a {@link
+ * #release()}; once the count drops to zero the buffer is handed back to its pool and must no longer be used.
+ *
+ * @author omar.H.Ajmi
+ * @since 16/10/2026
+ */
+public final class PooledByteBuffer {
+    private static final Logger LOGGER = LoggerFactory.getLogger(PooledByteBuffer.class);
+    private static final AtomicIntegerFieldUpdater<PooledByteBuffer> REF_COUNT =
+            AtomicIntegerFieldUpdater.newUpdater(PooledByteBuffer.class, "refCount");
+
+    private final ByteBufferPool pool;
+    private final ByteBuffer buffer;
+    private final int sizeClass;
+    private volatile int refCount;
+    private LeakTracker leakTracker;
+
+    PooledByteBuffer(ByteBufferPool pool, ByteBuffer buffer, int sizeClass) {
+        this.pool = pool;
+        this.buffer = buffer;
+        this.sizeClass = sizeClass;
+    }
+
+    /**
+     * Gets the leased buffer. Its position is zero and its limit is the size that was requested from the pool.
+     *
+     * @return the leased buffer
+     */
+    public ByteBuffer buffer() {
+        return buffer;
+    }
+
+    /**
+     * @return the current reference count, zero if the buffer went back to its pool
+     */
+    public int refCount() {
+        return refCount;
+    }
+
+    /**
+     * Increments the reference count.
+     *
+     * @return this buffer
+     * @throws IllegalStateException if the buffer was already released
+     */
+    public PooledByteBuffer retain() {
+        for (; ; ) {
+            int current = refCount;
+            if (current <= 0) {
+                throw LogUtil.logExceptionAsError(LOGGER, new IllegalStateException("Buffer was already released."));
+            }
+            if (REF_COUNT.compareAndSet(this, current, current + 1)) {
+                return this;
+            }
+        }
+    }
+
+    /**
+     * Decrements the reference count, handing the buffer back to its pool when it reaches zero.
+     *
+     * @return {@code true} if the buffer went back to its pool
+     * @throws IllegalStateException if the buffer was already released
+     */
+    public boolean release() {
+        for (; ; ) {
+            int current = refCount;
+            if (current <= 0) {
+                throw LogUtil.logExceptionAsError(LOGGER, new IllegalStateException("Buffer was already released."));
+            }
+            if (REF_COUNT.compareAndSet(this, current, current - 1)) {
+                if (current == 1) {
+                    if (leakTracker != null) {
+                        leakTracker.close();
+                        leakTracker = null;
+                    }
+                    buffer.clear();
+                    pool.recycle(this);
+                    return true;
+                }
+                return false;
+            }
+        }
+    }
+
+    int sizeClass() {
+        return sizeClass;
+    }
+
+    void lease(int size, Cleaner leakDetector) {
+        buffer.clear().limit(size);
+        if (leakDetector != null) {
+            leakTracker = new LeakTracker(leakDetector, this, buffer.capacity());
+        }
+        // published by the volatile write of the count, which a release on another thread reads first.
+        REF_COUNT.set(this, 1);
+    }
+
+    /*
+     * Records where a buffer was leased and reports it if the buffer becomes unreachable without being released.
+     */
+    private static final class LeakTracker implements Runnable {
+        private final Throwable leasedAt;
+        private final int capacity;
+        private final Cleaner.Cleanable cleanable;
+        private volatile boolean released;
+
+        LeakTracker(Cleaner cleaner, PooledByteBuffer owner, int capacity) {
+            this.leasedAt = new Throwable("Buffer leased here");
+            this.capacity = capacity;
+            this.cleanable = cleaner.register(owner, this);
+        }
+
+        void close() {
+            released = true;
+            cleanable.clean();
+        }
+
+        @Override
+        public void run() {
+            if (!released) {
+                LOGGER.error("LEAK: pooled buffer of {} bytes was garbage collected without being released.",
+                        capacity, leasedAt);
+            }
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package com.unisoft.core.util;
+
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * A handle to a configuration converted with a custom parser, see {@link ConfigurationProperty}.
+ *
+ * @param <T> the type of the value
+ * @author omar.H.Ajmi
+ * @since 16/10/2026
+ */
+public final class Property<T> extends ConfigurationProperty implements Supplier<T> {
+    private final Function<String, T> parser;
+    private final T defaultValue;
+
+    Property(UnisoftConfiguration configuration, String name, Function<String, T> parser, T defaultValue) {
+        super(configuration, name);
+        this.parser = Objects.requireNonNull(parser, "'parser' cannot be null.");
+        this.defaultValue = defaultValue;
+    }
+
+    /**
+     * @return the parsed value of the configuration, or the default value if it isn't set
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public T get() {
+        return (T) state().object;
+    }
+
+    @Override
+    State parse(ConfigurationSnapshot snapshot, String value) {
+        return new State(snapshot, value, 0, parser.apply(value));
+    }
+
+    @Override
+    State parseDefault(ConfigurationSnapshot snapshot) {
+        return new State(snapshot, null, 0, defaultValue);
+    }
+}
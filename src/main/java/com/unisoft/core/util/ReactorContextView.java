@@ -0,0 +1,125 @@
+package com.unisoft.core.util;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+/**
+ * Exposes an Unisoft {@link Context} as a {@link reactor.util.context.Context Reactor Context}, layered on top of
+ * another Reactor context, without copying its entries.
+ * <p>
+ * Lookups check the Unisoft context first, then the underlying Reactor context. Entries with a {@code null} value are
+ * hidden, Reactor contexts not allowing them. {@link #put(Object, Object)} adds to the Unisoft context in constant
+ * time; only {@link #delete(Object)}, {@link #size()} and {@link #stream()} walk the entries, the first of them
+ * flattening them into a map kept for the next ones.
+ *
+ * @author omar.H.Ajmi
+ * @since 16/10/2026
+ */
+final class ReactorContextView implements reactor.util.context.Context {
+    private final Context context;
+    private final reactor.util.context.Context underlying;
+    /*
+     * The flattened entries, computed on first use. Racing threads may each compute them, to the same result.
+     */
+    private volatile Map<Object, Object> entries;
+
+    ReactorContextView(Context context, reactor.util.context.Context underlying) {
+        this.context = context;
+        this.underlying = underlying;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key) {
+        Object value = context.find(key);
+        if (value != Context.MISSING && value != null) {
+            return (T) value;
+        }
+        if (underlying.hasKey(key)) {
+            return underlying.get(key);
+        }
+        throw new NoSuchElementException("Context does not contain key: " + key);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T getOrDefault(Object key, T defaultValue) {
+        Object value = context.find(key);
+        if (value != Context.MISSING && value != null) {
+            return (T) value;
+        }
+        return underlying.getOrDefault(key, defaultValue);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> Optional<T> getOrEmpty(Object key) {
+        Object value = context.find(key);
+        if (value != Context.MISSING && value != null) {
+            return Optional.of((T) value);
+        }
+        return underlying.getOrEmpty(key);
+    }
+
+    @Override
+    public boolean hasKey(Object key) {
+        Object value = context.find(key);
+        return (value != Context.MISSING && value != null) || underlying.hasKey(key);
+    }
+
+    @Override
+    public reactor.util.context.Context put(Object key, Object value) {
+        return new ReactorContextView(context.addData(key, value), underlying);
+    }
+
+    @Override
+    public reactor.util.context.Context delete(Object key) {
+        Map<Object, Object> values = entries();
+        if (!values.containsKey(key)) {
+            return this;
+        }
+        values = new HashMap<>(values);
+        values.remove(key);
+        return reactor.util.context.Context.of(values);
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+
+    @Override
+    public int size() {
+        return entries().size();
+    }
+
+    @Override
+    public Stream<Map.Entry<Object, Object>> stream() {
+        return entries().entrySet().stream();
+    }
+
+    private Map<Object, Object> entries() {
+        Map<Object, Object> values = entries;
+        if (values == null) {
+            final Map<Object, Object> flattened = new HashMap<>();
+            underlying.stream().forEach(entry -> flattened.put(entry.getKey(), entry.getValue()));
+            context.forEach((key, value) -> {
+                if (value != null) {
+                    flattened.put(key, value);
+                }
+            });
+            values = Collections.unmodifiableMap(flattened);
+            entries = values;
+        }
+        return values;
+    }
+
+    @Override
+    public String toString() {
+        return "ReactorContextView" + entries();
+    }
+}
@@ -0,0 +1,126 @@
+package com.unisoft.core.util;
+
+import com.unisoft.core.util.log.LogUtil;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Collects {@link ByteBuffer ByteBuffers} in memory up to a threshold, then moves the content to a temporary file and
+ * appends the following buffers to it.
+ * <p>
+ * Writes to the temporary file are blocking, callers expected to spill should collect on a scheduler that allows
+ * blocking. Writing, finishing and discarding are serialized, so that a discard racing with an in-flight write, e.g.
+ * on cancellation, deletes the file once the write is done, and the writes arriving after a discard are dropped.
+ *
+ * @author omar.H.Ajmi
+ * @since 16/10/2026
+ */
+final class SpillingByteBufferCollector {
+    private static final Logger LOGGER = LoggerFactory.getLogger(SpillingByteBufferCollector.class);
+
+    private final long memoryThreshold;
+    private final long maxSize;
+    private ByteBufferCollector memory = new ByteBufferCollector();
+    private Path file;
+    private FileChannel channel;
+    private long size;
+    private boolean discarded;
+
+    /**
+     * @param memoryThreshold the number of bytes kept in memory before spilling to a file
+     * @param maxSize         the maximum number of bytes accepted, a negative value if unbounded
+     */
+    SpillingByteBufferCollector(long memoryThreshold, long maxSize) {
+        this.memoryThreshold = memoryThreshold;
+        this.maxSize = maxSize;
+    }
+
+    static void delete(Path file, FileChannel channel) {
+        try {
+            channel.close();
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            LogUtil.warn(LOGGER, "Failed to delete temporary file {}.", file, e);
+        }
+    }
+
+    synchronized void write(ByteBuffer byteBuffer) {
+        if (discarded) {
+            return;
+        }
+        int remaining = byteBuffer.remaining();
+        if (maxSize >= 0 && size + remaining > maxSize) {
+            throw LogUtil.logExceptionAsError(LOGGER,
+                    new IllegalStateException("Content exceeds the maximum size of " + maxSize + " bytes."));
+        }
+
+        try {
+            if (channel == null && size + remaining > memoryThreshold) {
+                spill();
+            }
+            if (channel == null) {
+                memory.write(byteBuffer);
+            } else {
+                while (byteBuffer.hasRemaining()) {
+                    channel.write(byteBuffer);
+                }
+            }
+        } catch (IOException e) {
+            throw LogUtil.logExceptionAsError(LOGGER, new UncheckedIOException(e));
+        }
+        size += remaining;
+    }
+
+    /*
+     * Returns null if the content was discarded.
+     */
+    synchronized BufferedContent finish() {
+        if (discarded) {
+            return null;
+        }
+        if (channel == null) {
+            BufferedContent content = new BufferedContent(memory.toByteArray());
+            memory = null;
+            return content;
+        }
+        BufferedContent content = new BufferedContent(file, channel, size);
+        file = null;
+        channel = null;
+        return content;
+    }
+
+    synchronized void discard() {
+        discarded = true;
+        memory = null;
+        if (channel != null) {
+            delete(file, channel);
+            file = null;
+            channel = null;
+        }
+    }
+
+    private void spill() throws IOException {
+        file = Files.createTempFile("unisoft-", ".tmp");
+        try {
+            channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        } catch (IOException e) {
+            Files.deleteIfExists(file);
+            file = null;
+            throw e;
+        }
+
+        ByteBuffer inMemory = ByteBuffer.wrap(memory.toByteArray());
+        memory = null;
+        while (inMemory.hasRemaining()) {
+            channel.write(inMemory);
+        }
+    }
+}
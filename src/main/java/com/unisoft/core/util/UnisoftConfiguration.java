@@ -1,36 +1,112 @@
 package com.unisoft.core.util;
 
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.ConcurrentMap;
+import com.unisoft.core.util.log.LogUtil;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import reactor.core.publisher.Flux;
+
+import java.lang.ref.WeakReference;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
+import java.util.function.Consumer;
 import java.util.function.Function;
+import java.util.function.Predicate;
 
 /**
+ * Configuration store, backed by an immutable {@link ConfigurationSnapshot} published through a single volatile
+ * reference.
+ * <p>
+ * Reads are a field load followed by a map lookup and never observe half applied changes, multiple configurations
+ * being changed atomically with {@link #update(Consumer)}. Every change bumps the {@link #getVersion() version} and is
+ * reported to the {@link ConfigurationListener listeners} on a dedicated thread, and to the subscribers of
+ * {@link #changes()}.
+ * <p>
+ * Configurations not set on the store are looked up in its {@link ConfigurationSource sources}, by default the runtime
+ * parameters then the environment variables, probed on the first lookup of each name. A configuration created with
+ * {@link #UnisoftConfiguration(List)} loads its sources in a single pass instead, whenever they support it.
+ *
  * @author omar.H.Ajmi
  * @since 21/10/2020
  */
 public class UnisoftConfiguration implements Cloneable {
+    /*
+     * The environment of a process doesn't change, it is captured once rather than queried on every miss. Declared
+     * first as the configurations below load from it when initialized.
+     */
+    private static final Map<String, String> ENVIRONMENT = System.getenv();
     /**
      * No-op {@link UnisoftConfiguration} object used to opt out of using global configurations when constructing client
      * libraries.
      */
     public static final UnisoftConfiguration NONE = new NoopConfiguration();
     protected static final String MAX_RETRY_COUNT = "MAX_RETRY_COUNT";
+    /**
+     * Number of bytes collected in memory before spilling to a temporary file.
+     */
+    protected static final String COLLECT_MEMORY_THRESHOLD = "COLLECT_MEMORY_THRESHOLD";
+    /**
+     * Maximum number of bytes accepted when collecting content, unbounded if negative.
+     */
+    protected static final String COLLECT_MAX_SIZE = "COLLECT_MAX_SIZE";
+    private static final Logger LOGGER = LoggerFactory.getLogger(UnisoftConfiguration.class);
+    private static final AtomicReferenceFieldUpdater<UnisoftConfiguration, ConfigurationSnapshot> SNAPSHOT =
+            AtomicReferenceFieldUpdater.newUpdater(UnisoftConfiguration.class, ConfigurationSnapshot.class, "snapshot");
     private static final UnisoftConfiguration GLOBAL_CONFIGURATION = new UnisoftConfiguration();
     protected final String[] DEFAULT_CONFIGURATIONS = {
-            MAX_RETRY_COUNT
+            MAX_RETRY_COUNT,
+            COLLECT_MEMORY_THRESHOLD,
+            COLLECT_MAX_SIZE
     };
-    private final ConcurrentMap<String, String> configurations;
+    private final List<ConfigurationListener> listeners = new CopyOnWriteArrayList<>();
+    private volatile ConfigurationSnapshot snapshot;
+    /*
+     * Snapshot the listeners were last notified of, only accessed from the listener notification thread.
+     */
+    private ConfigurationSnapshot lastNotified;
 
     /**
      * Constructs a configuration containing the known Unisoft properties constants.
      */
     public UnisoftConfiguration() {
-        this.configurations = new ConcurrentHashMap<>();
-        loadBaseConfiguration(this);
+        loadBaseConfiguration();
+    }
+
+    /**
+     * Constructs a configuration looking up the configurations it doesn't hold in the given sources, the first source
+     * holding a configuration taking precedence. The sources supporting {@link ConfigurationSource#loadAll()} are
+     * loaded right away, and again on {@link #refresh()} or when they report a change, such as a
+     * {@link FileConfigurationSource}. The sources don't keep the configuration reachable, their listener is removed
+     * on the first change after the configuration was garbage collected.
+     *
+     * @param sources the sources, in priority order
+     * @throws NullPointerException if {@code sources} is {@code null} or holds a {@code null} source
+     */
+    public UnisoftConfiguration(List<ConfigurationSource> sources) {
+        Objects.requireNonNull(sources, "'sources' cannot be null.");
+        final List<ConfigurationSource> copy = new ArrayList<>(sources);
+        if (copy.contains(null)) {
+            throw LogUtil.logExceptionAsError(LOGGER, new NullPointerException("'sources' cannot hold null."));
+        }
+        this.snapshot = new ConfigurationSnapshot(new HashMap<>(), 0,
+                ConfigurationLayers.load(Collections.unmodifiableList(copy)));
+        listenTo(copy);
     }
 
-    private UnisoftConfiguration(ConcurrentMap<String, String> configurations) {
-        this.configurations = new ConcurrentHashMap<>(configurations);
+    private UnisoftConfiguration(ConfigurationSnapshot snapshot) {
+        // snapshots being immutable, the clone shares the current one, and its base past the first change.
+        this.snapshot = snapshot;
     }
 
     /**
@@ -123,9 +199,69 @@ public class UnisoftConfiguration implements Cloneable {
         return converter.apply(value);
     }
 
+    /**
+     * Creates a handle to an {@code int} configuration, parsed once per change of the configuration.
+     *
+     * @param name         Name of the configuration.
+     * @param defaultValue Value to return if the configuration isn't found.
+     * @return The handle to the configuration.
+     */
+    public IntProperty getIntProperty(String name, int defaultValue) {
+        return new IntProperty(this, name, defaultValue);
+    }
+
+    /**
+     * Creates a handle to a {@code long} configuration, parsed once per change of the configuration.
+     *
+     * @param name         Name of the configuration.
+     * @param defaultValue Value to return if the configuration isn't found.
+     * @return The handle to the configuration.
+     */
+    public LongProperty getLongProperty(String name, long defaultValue) {
+        return new LongProperty(this, name, defaultValue);
+    }
+
+    /**
+     * Creates a handle to a {@code boolean} configuration, parsed once per change of the configuration.
+     *
+     * @param name         Name of the configuration.
+     * @param defaultValue Value to return if the configuration isn't found.
+     * @return The handle to the configuration.
+     */
+    public BooleanProperty getBooleanProperty(String name, boolean defaultValue) {
+        return new BooleanProperty(this, name, defaultValue);
+    }
+
+    /**
+     * Creates a handle to a {@link Duration} configuration, parsed once per change of the configuration.
+     *
+     * @param name         Name of the configuration.
+     * @param defaultValue Value to return if the configuration isn't found.
+     * @return The handle to the configuration.
+     */
+    public DurationProperty getDurationProperty(String name, Duration defaultValue) {
+        return new DurationProperty(this, name, defaultValue);
+    }
+
+    /**
+     * Creates a handle to a configuration converted to {@code T}, converted once per change of the configuration.
+     *
+     * @param name         Name of the configuration.
+     * @param converter    Converter used to map the configuration to {@code T}.
+     * @param defaultValue Value to return if the configuration isn't found.
+     * @param <T>          Generic type that the configuration is converted to if found.
+     * @return The handle to the configuration.
+     */
+    public <T> Property<T> getProperty(String name, Function<String, T> converter, T defaultValue) {
+        return new Property<>(this, name, converter, defaultValue);
+    }
+
     /*
      * Attempts to get the value of the configuration from the configuration store, if the value isn't found then it
-     * attempts to load it from the runtime parameters then the environment variables.
+     * attempts to load it from the sources, by default the runtime parameters then the environment variables.
+     *
+     * Names found nowhere are remembered until the configuration changes or is refreshed, so probing optional
+     * configurations doesn't hit the runtime parameters on every call.
      *
      * If no configuration is found null is returned.
      *
@@ -134,18 +270,60 @@ public class UnisoftConfiguration implements Cloneable {
      * variable, in that order, if found, otherwise null.
      */
     private String getOrLoad(String name) {
-        String value = configurations.get(name);
+        final ConfigurationSnapshot current = snapshot;
+        final ConfigurationLayers layers = current.layers();
+        if (layers != ConfigurationLayers.NONE && layers.isAllLoaded()) {
+            return current.get(name);
+        }
+        String value = current.lookup(name);
         if (value != null) {
-            return value;
+            return value == ConfigurationSnapshot.NOT_FOUND ? null : value;
         }
 
-        value = load(name);
-        if (value != null) {
-            configurations.put(name, value);
-            return value;
+        // values of sources loaded in bulk are cached as well, sparing the probes of the sources above them, and
+        // forgotten when the sources are loaded again.
+        value = layers == ConfigurationLayers.NONE ? load(name) : layers.get(name);
+        cache(name, value == null ? ConfigurationSnapshot.NOT_FOUND : value);
+        return value;
+    }
+
+    /*
+     * Adds a loaded value, or NOT_FOUND, to the snapshot without changing its version, unless the configuration was
+     * set meanwhile.
+     */
+    private void cache(String name, String value) {
+        for (; ; ) {
+            final ConfigurationSnapshot current = snapshot;
+            if (current.lookup(name) != null || SNAPSHOT.compareAndSet(this, current, current.cache(name, value))) {
+                return;
+            }
         }
+    }
 
-        return null;
+    /**
+     * Forgets the configurations that were not found in the sources, so that the next lookups check the sources again.
+     * Any change to the configuration does the same.
+     * <p>
+     * The sources loaded in bulk are loaded again, which is reported as a change if any of their configurations
+     * changed.
+     *
+     * @return The refreshed Configuration object.
+     */
+    public UnisoftConfiguration refresh() {
+        for (; ; ) {
+            final ConfigurationSnapshot current = snapshot;
+            final ConfigurationLayers layers = current.layers().reload();
+            if (layers != current.layers()) {
+                if (publish(current, current.withLayers(layers, current.getVersion() + 1))) {
+                    return this;
+                }
+                continue;
+            }
+            final ConfigurationSnapshot refreshed = current.withoutNotFound();
+            if (refreshed == current || SNAPSHOT.compareAndSet(this, current, refreshed)) {
+                return this;
+            }
+        }
     }
 
     /*
@@ -167,7 +345,7 @@ public class UnisoftConfiguration implements Cloneable {
     }
 
     String loadFromEnvironment(String name) {
-        return System.getenv(name);
+        return ENVIRONMENT.get(name);
     }
 
     String loadFromProperties(String name) {
@@ -184,18 +362,197 @@ public class UnisoftConfiguration implements Cloneable {
      * @return The updated Configuration object.
      */
     public UnisoftConfiguration put(String name, String value) {
-        configurations.put(name, value);
+        Objects.requireNonNull(name, "'name' cannot be null.");
+        Objects.requireNonNull(value, "'value' cannot be null.");
+        for (; ; ) {
+            final ConfigurationSnapshot current = snapshot;
+            if (current.isSet(name) && value.equals(current.lookup(name))) {
+                return this;
+            }
+            if (publish(current, current.with(name, value, current.getVersion() + 1))) {
+                return this;
+            }
+        }
+    }
+
+    /**
+     * Atomically applies several changes to the configuration: readers either see all of them or none.
+     * <p>
+     * The mutation is given a copy of the configurations set on the store, leaving out those loaded from its sources,
+     * which it changes in place. It may be called more than
+     * once if the configuration is changed concurrently, and hence must not have side effects.
+     *
+     * @param mutation the changes to apply
+     * @return The updated Configuration object.
+     * @throws NullPointerException if {@code mutation} is {@code null}, or leaves a {@code null} name or value
+     */
+    public UnisoftConfiguration update(Consumer<Map<String, String>> mutation) {
+        Objects.requireNonNull(mutation, "'mutation' cannot be null.");
+        for (; ; ) {
+            final ConfigurationSnapshot current = snapshot;
+            final Map<String, String> values = current.copyValues();
+            mutation.accept(values);
+            if (values.containsKey(null) || values.containsValue(null)) {
+                throw LogUtil.logExceptionAsError(LOGGER,
+                        new NullPointerException("Configuration names and values cannot be null."));
+            }
+            if (current.hasValues(values)) {
+                return this;
+            }
+            if (publish(current, current.withValues(values, current.getVersion() + 1))) {
+                return this;
+            }
+        }
+    }
+
+    /**
+     * Atomically adds several configurations, see {@link #update(Consumer)}.
+     *
+     * @param configurations the names and values of the configurations
+     * @return The updated Configuration object.
+     * @throws NullPointerException if {@code configurations} is {@code null} or holds a {@code null} name or value
+     */
+    public UnisoftConfiguration putAll(Map<String, String> configurations) {
+        Objects.requireNonNull(configurations, "'configurations' cannot be null.");
+        return update(values -> values.putAll(configurations));
+    }
+
+    /**
+     * @return the current state of the configuration
+     */
+    public ConfigurationSnapshot snapshot() {
+        return snapshot;
+    }
+
+    /**
+     * Gets the version of the configuration, which increases with every change. Comparing it to the version of a
+     * previous read tells whether the configuration must be read again.
+     *
+     * @return the version of the configuration
+     */
+    public long getVersion() {
+        return snapshot.getVersion();
+    }
+
+    /**
+     * Adds a listener notified of the changes made from now on. Changes made while the listener is being added may be
+     * reported along with the next one.
+     *
+     * @param listener the listener
+     * @return The updated Configuration object.
+     * @throws NullPointerException if {@code listener} is {@code null}
+     */
+    public UnisoftConfiguration addListener(ConfigurationListener listener) {
+        Objects.requireNonNull(listener, "'listener' cannot be null.");
+        if (listeners.isEmpty()) {
+            // changes made while nobody listened are not reported.
+            final ConfigurationSnapshot current = snapshot;
+            ListenerNotifier.EXECUTOR.execute(() -> lastNotified = current);
+        }
+        listeners.add(listener);
         return this;
     }
 
     /**
-     * Removes the configuration.
+     * Creates a stream of the changes of the configuration, made from the subscription on.
+     * <p>
+     * Changes are reported per configuration name. Changes made in quick succession, or while the subscriber doesn't
+     * request more, are coalesced into a single change per configuration, from its last reported value to its latest
+     * one; a configuration changed back to its last reported value isn't reported at all.
+     *
+     * @return a {@link Flux} of the changes, which never completes
+     */
+    public Flux<ConfigChange> changes() {
+        return changes(name -> true);
+    }
+
+    /**
+     * Creates a stream of the changes of the given configurations, made from the subscription on, see
+     * {@link #changes()}.
+     *
+     * @param names the names of the configurations
+     * @return a {@link Flux} of the changes, which never completes
+     * @throws NullPointerException if {@code names} is {@code null}
+     */
+    public Flux<ConfigChange> changes(String... names) {
+        Objects.requireNonNull(names, "'names' cannot be null.");
+        final Set<String> filter = new HashSet<>(Arrays.asList(names));
+        return changes(filter::contains);
+    }
+
+    private Flux<ConfigChange> changes(Predicate<String> filter) {
+        return Flux.create(sink -> {
+            final ConfigChangePublisher publisher = new ConfigChangePublisher(sink, filter);
+            /* added first, so that a subscriber cancelling right away still removes it. */
+            addListener(publisher);
+            sink.onDispose(() -> removeListener(publisher));
+        });
+    }
+
+    /**
+     * Removes a listener.
+     *
+     * @param listener the listener
+     * @return whether the listener was removed
+     */
+    public boolean removeListener(ConfigurationListener listener) {
+        return listeners.remove(listener);
+    }
+
+    private boolean publish(ConfigurationSnapshot current, ConfigurationSnapshot next) {
+        if (!SNAPSHOT.compareAndSet(this, current, next)) {
+            return false;
+        }
+        if (!listeners.isEmpty()) {
+            ListenerNotifier.EXECUTOR.execute(this::notifyListeners);
+        }
+        return true;
+    }
+
+    /*
+     * Runs on the notification thread, reporting all the changes made since the last notification at once.
+     */
+    private void notifyListeners() {
+        final ConfigurationSnapshot current = snapshot;
+        final ConfigurationSnapshot previous = lastNotified;
+        if (previous != null && previous.getVersion() == current.getVersion()) {
+            return;
+        }
+        lastNotified = current;
+        for (ConfigurationListener listener : listeners) {
+            try {
+                listener.onChange(previous == null ? ConfigurationSnapshot.EMPTY : previous, current);
+            } catch (RuntimeException e) {
+                LogUtil.warn(LOGGER, "Configuration listener failed.", e);
+            }
+        }
+    }
+
+    /**
+     * Removes the configuration. Configurations held by the sources loaded in bulk are not removed and show through
+     * again.
      *
      * @param name Name of the configuration.
      * @return If the configuration was removed the value of it, otherwise {@code null}.
      */
     public String remove(String name) {
-        return configurations.remove(name);
+        for (; ; ) {
+            final ConfigurationSnapshot current = snapshot;
+            final String previous = current.lookup(name);
+            if (previous == null || previous == ConfigurationSnapshot.NOT_FOUND) {
+                return null;
+            }
+            if (!current.isSet(name)) {
+                // a probed value, probed again on the next lookup, which isn't a change.
+                if (SNAPSHOT.compareAndSet(this, current, current.uncache(name))) {
+                    return previous;
+                }
+                continue;
+            }
+            if (publish(current, current.without(name, current.getVersion() + 1))) {
+                return previous;
+            }
+        }
     }
 
     /**
@@ -205,23 +562,85 @@ public class UnisoftConfiguration implements Cloneable {
      * @return True if the configuration exists, otherwise false.
      */
     public boolean contains(String name) {
-        return configurations.containsKey(name);
+        return snapshot.contains(name);
     }
 
     /**
+     * Creates a configuration holding the same configurations and sources, changed independently from this one.
+     * <p>
+     * Creating a clone copies nothing: it shares the current snapshot of this configuration, and then the base of the
+     * configurations set, only its own changes taking memory. The clone loads its sources again on {@link #refresh()}
+     * and when they report a change, like this configuration.
+     *
      * @return A clone of the Configuration object.
      */
     @SuppressWarnings("CloneDoesntCallSuperClone")
     public UnisoftConfiguration clone() {
-        return new UnisoftConfiguration(configurations);
+        final ConfigurationSnapshot current = snapshot;
+        final UnisoftConfiguration clone = new UnisoftConfiguration(current);
+        clone.listenTo(current.layers().sources());
+        return clone;
     }
 
-    private void loadBaseConfiguration(UnisoftConfiguration configuration) {
-        for (String config : DEFAULT_CONFIGURATIONS) {
-            String value = load(config);
-            if (value != null) {
-                configuration.put(config, value);
+    private void listenTo(List<ConfigurationSource> sources) {
+        for (ConfigurationSource source : sources) {
+            source.addChangeListener(new SourceListener(this, source));
+        }
+    }
+
+    /*
+     * Preloads the known configurations with a single batch per default source, rather than probing each name. The
+     * sources are layered from the lowest priority up, so that the system properties override the environment.
+     */
+    private void loadBaseConfiguration() {
+        final List<ConfigurationSource> sources = ConfigurationSources.defaults();
+        final Map<String, String> values = new HashMap<>();
+        for (int i = sources.size() - 1; i >= 0; i--) {
+            final ConfigurationSource source = sources.get(i);
+            final Map<String, String> loaded = source.loadAll();
+            for (String config : DEFAULT_CONFIGURATIONS) {
+                final String value = loaded == null ? source.get(config) : loaded.get(config);
+                if (value != null) {
+                    values.put(config, value);
+                }
             }
         }
+        snapshot = new ConfigurationSnapshot(values, 0, ConfigurationLayers.NONE);
+    }
+
+    /*
+     * Refreshes a configuration when one of its sources changes, off the request path on the thread detecting the
+     * change. The configuration is weakly referenced, so that long-lived sources don't retain short-lived
+     * configurations, and the listener removes itself once the configuration was collected.
+     */
+    private static final class SourceListener implements Runnable {
+        private final WeakReference<UnisoftConfiguration> configuration;
+        private final ConfigurationSource source;
+
+        SourceListener(UnisoftConfiguration configuration, ConfigurationSource source) {
+            this.configuration = new WeakReference<>(configuration);
+            this.source = source;
+        }
+
+        @Override
+        public void run() {
+            final UnisoftConfiguration current = configuration.get();
+            if (current == null) {
+                source.removeChangeListener(this);
+            } else {
+                current.refresh();
+            }
+        }
+    }
+
+    /*
+     * Single daemon thread shared by all configurations to notify their listeners, created on first use.
+     */
+    private static final class ListenerNotifier {
+        private static final ExecutorService EXECUTOR = Executors.newSingleThreadExecutor(runnable -> {
+            final Thread thread = new Thread(runnable, "unisoft-configuration-listeners");
+            thread.setDaemon(true);
+            return thread;
+        });
     }
 }
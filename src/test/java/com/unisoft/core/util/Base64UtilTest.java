@@ -1,10 +1,17 @@
 package com.unisoft.core.util;
 
 import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
 
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
 import java.util.Arrays;
+import java.util.Base64;
+import java.util.Random;
 
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 class Base64UtilTest {
@@ -46,4 +53,66 @@ class Base64UtilTest {
     void testDecodeURLNullValue() {
         assertNull(Base64Util.decodeURL(null));
     }
-}
\ No newline at end of file
+
+    @Test
+    void testEncodeAndDecodeStream() {
+        for (int length = 0; length < 64; length++) {
+            byte[] src = randomBytes(length);
+
+            byte[] encoded = collect(Base64Util.encodeStream(chunked(src)));
+            assertArrayEquals(Base64.getEncoder().encode(src), encoded);
+            assertArrayEquals(src, collect(Base64Util.decodeStream(chunked(encoded))));
+
+            byte[] encodedWithoutPadding = collect(Base64Util.encodeStreamWithoutPadding(chunked(src)));
+            assertArrayEquals(Base64.getEncoder().withoutPadding().encode(src), encodedWithoutPadding);
+            assertArrayEquals(src, collect(Base64Util.decodeStream(chunked(encodedWithoutPadding))));
+        }
+    }
+
+    @Test
+    void testEncodeAndDecodeURLStream() {
+        for (int length = 0; length < 64; length++) {
+            byte[] src = randomBytes(length);
+
+            byte[] encoded = collect(Base64Util.encodeURLStream(chunked(src)));
+            assertArrayEquals(Base64.getUrlEncoder().encode(src), encoded);
+            assertArrayEquals(src, collect(Base64Util.decodeURLStream(chunked(encoded))));
+
+            byte[] encodedWithoutPadding = collect(Base64Util.encodeURLStreamWithoutPadding(chunked(src)));
+            assertArrayEquals(Base64Util.encodeURLWithoutPadding(src), encodedWithoutPadding);
+            assertArrayEquals(src, collect(Base64Util.decodeURLStream(chunked(encodedWithoutPadding))));
+        }
+    }
+
+    @Test
+    void testDecodeStreamInvalidInput() {
+        Flux<ByteBuffer> invalid = Flux.just(ByteBuffer.wrap("QUJD*".getBytes(StandardCharsets.US_ASCII)));
+        assertThrows(IllegalArgumentException.class, () -> collect(Base64Util.decodeStream(invalid)));
+    }
+
+    private static byte[] randomBytes(int length) {
+        byte[] bytes = new byte[length];
+        new Random(length).nextBytes(bytes);
+        return bytes;
+    }
+
+    /*
+     * Splits the bytes in buffers of 0 to 4 bytes so that Base64 groups straddle buffer boundaries.
+     */
+    private static Flux<ByteBuffer> chunked(byte[] bytes) {
+        Random random = new Random(bytes.length);
+        return Flux.generate(() -> 0, (offset, sink) -> {
+            if (offset >= bytes.length) {
+                sink.complete();
+                return offset;
+            }
+            int length = Math.min(bytes.length - offset, random.nextInt(5));
+            sink.next(ByteBuffer.wrap(bytes, offset, length));
+            return offset + length;
+        });
+    }
+
+    private static byte[] collect(Flux<ByteBuffer> stream) {
+        return FluxUtil.collectBytesInByteBufferStream(stream).block();
+    }
+}
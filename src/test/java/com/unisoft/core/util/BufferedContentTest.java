@@ -0,0 +1,81 @@
+package com.unisoft.core.util;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import reactor.core.publisher.Flux;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BufferedContentTest {
+    private static final byte[] CONTENT = randomBytes();
+
+    private static byte[] randomBytes() {
+        byte[] bytes = new byte[50_000];
+        new Random(42).nextBytes(bytes);
+        return bytes;
+    }
+
+    private static Flux<ByteBuffer> content() {
+        return Flux.range(0, 10).map(i -> ByteBuffer.wrap(CONTENT, i * 5_000, 5_000));
+    }
+
+    @ParameterizedTest
+    @ValueSource(longs = {0, 10_000, 50_000, 100_000})
+    void collectBufferedContent(long memoryThreshold) throws IOException {
+        try (BufferedContent content = FluxUtil.collectBufferedContent(content(), memoryThreshold, -1).block()) {
+            assertNotNull(content);
+            assertEquals(CONTENT.length, content.size());
+            assertEquals(memoryThreshold < CONTENT.length, content.isSpilled());
+
+            assertArrayEquals(CONTENT,
+                    FluxUtil.collectBytesInByteBufferStream(content.toFluxByteBuffer(4096)).block());
+            try (InputStream inputStream = content.toInputStream()) {
+                assertArrayEquals(CONTENT, inputStream.readAllBytes());
+            }
+            ByteBuffer buffer = content.toByteBuffer();
+            assertTrue(buffer.isReadOnly());
+            assertEquals(ByteBuffer.wrap(CONTENT), buffer);
+        }
+    }
+
+    @Test
+    void collectBufferedContentFailsPastMaxSize() {
+        assertThrows(IllegalStateException.class,
+                () -> FluxUtil.collectBufferedContent(content(), 10_000, 20_000).block());
+    }
+
+    @Test
+    void collectBufferedContentUsesConfiguration() {
+        UnisoftConfiguration configuration = new UnisoftConfiguration()
+                .put(UnisoftConfiguration.COLLECT_MEMORY_THRESHOLD, "100")
+                .put(UnisoftConfiguration.COLLECT_MAX_SIZE, "1000000");
+
+        try (BufferedContent content = FluxUtil.collectBufferedContent(content(), configuration).block()) {
+            assertNotNull(content);
+            assertTrue(content.isSpilled());
+        }
+    }
+
+    @Test
+    void cancelledCollectionDropsLaterWrites() {
+        SpillingByteBufferCollector collector = new SpillingByteBufferCollector(0, -1);
+        collector.write(ByteBuffer.wrap(CONTENT, 0, 5_000));
+        collector.discard();
+
+        ByteBuffer late = ByteBuffer.wrap(CONTENT, 5_000, 5_000);
+        collector.write(late);
+        assertEquals(5_000, late.remaining());
+        assertNull(collector.finish());
+    }
+
+    @Test
+    void negativeMemoryThresholdIsRejected() {
+        assertThrows(IllegalArgumentException.class, () -> FluxUtil.collectBufferedContent(content(), -1, -1));
+    }
+}
@@ -0,0 +1,144 @@
+package com.unisoft.core.util;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.lang.management.ManagementFactory;
+import java.nio.ByteBuffer;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ByteBufferPoolTest {
+
+    @ParameterizedTest
+    @ValueSource(ints = {0, 1, 512, 513, 4096, ByteBufferPool.MAX_POOLED_SIZE, ByteBufferPool.MAX_POOLED_SIZE + 1})
+    void leaseHasRequestedLimit(int size) {
+        PooledByteBuffer pooled = new ByteBufferPool(false, false).lease(size);
+
+        assertEquals(0, pooled.buffer().position());
+        assertEquals(size, pooled.buffer().limit());
+        assertTrue(pooled.buffer().capacity() >= size);
+        assertEquals(1, pooled.refCount());
+    }
+
+    @Test
+    void releasedBufferIsReused() {
+        ByteBufferPool pool = new ByteBufferPool(true, false);
+        PooledByteBuffer first = pool.lease(1000);
+        assertTrue(first.buffer().isDirect());
+        assertTrue(first.release());
+
+        assertSame(first, pool.lease(700));
+    }
+
+    @Test
+    void retainDefersRelease() {
+        PooledByteBuffer pooled = new ByteBufferPool(false, false).lease(100);
+        pooled.retain();
+
+        assertFalse(pooled.release());
+        assertTrue(pooled.release());
+        assertThrows(IllegalStateException.class, pooled::release);
+        assertThrows(IllegalStateException.class, pooled::retain);
+    }
+
+    @Test
+    void negativeSizeIsRejected() {
+        assertThrows(IllegalArgumentException.class, () -> ByteBufferPool.heap().lease(-1));
+    }
+
+    @Test
+    void steadyStateLeaseDoesNotAllocate() {
+        com.sun.management.ThreadMXBean threadMXBean =
+                (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long threadId = Thread.currentThread().getId();
+        ByteBufferPool pool = new ByteBufferPool(false, false);
+
+        // warm up the pool and the measurement itself.
+        leaseAndRelease(pool, 10_000);
+        threadMXBean.getThreadAllocatedBytes(threadId);
+
+        long before = threadMXBean.getThreadAllocatedBytes(threadId);
+        leaseAndRelease(pool, 100_000);
+        long allocated = threadMXBean.getThreadAllocatedBytes(threadId) - before;
+
+        assertTrue(allocated < 4096, "allocated " + allocated + " bytes");
+    }
+
+    @Test
+    void copyToPooled() {
+        ByteBufferPool pool = new ByteBufferPool(false, false);
+        List<PooledByteBuffer> copies = FluxUtil.copyToPooled(
+                Flux.just(ByteBuffer.wrap(new byte[]{1, 2, 3}), ByteBuffer.wrap(new byte[]{4})), pool)
+                .collectList()
+                .block();
+
+        assertNotNull(copies);
+        assertEquals(2, copies.size());
+        assertEquals(ByteBuffer.wrap(new byte[]{1, 2, 3}), copies.get(0).buffer());
+        assertEquals(ByteBuffer.wrap(new byte[]{4}), copies.get(1).buffer());
+        copies.forEach(PooledByteBuffer::release);
+    }
+
+    @Test
+    void buffersDiscardedDownstreamAreReleasedByTheSubscriberHook() throws Exception {
+        ByteBufferPool pool = new ByteBufferPool(false, false);
+        List<PooledByteBuffer> leased = new CopyOnWriteArrayList<>();
+        Flux<ByteBuffer> source = Flux.range(0, 64).map(i -> ByteBuffer.wrap(new byte[]{(byte) i}));
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        CountDownLatch prefetched = new CountDownLatch(1);
+        // holds the publishOn worker back until the whole prefetch is queued.
+        executor.execute(() -> {
+            try {
+                prefetched.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+
+        CompletableFuture<PooledByteBuffer> first = FluxUtil.copyToPooled(source, pool)
+                .doOnNext(leased::add)
+                .publishOn(Schedulers.fromExecutor(executor), 32)
+                .take(1)
+                .doOnDiscard(PooledByteBuffer.class, PooledByteBuffer::release)
+                .next()
+                .toFuture();
+        assertEquals(32, leased.size());
+        prefetched.countDown();
+
+        assertTrue(first.get(10, TimeUnit.SECONDS).release());
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+        for (PooledByteBuffer pooled : leased) {
+            assertEquals(0, pooled.refCount());
+        }
+    }
+
+    @Test
+    void usingPooledBufferReleasesOnCompletion() {
+        ByteBufferPool pool = new ByteBufferPool(false, false);
+
+        ByteBuffer used = FluxUtil.usingPooledBuffer(pool, 100, Mono::just).blockLast();
+
+        assertSame(used, pool.lease(100).buffer());
+    }
+
+    private static void leaseAndRelease(ByteBufferPool pool, int iterations) {
+        for (int i = 0; i < iterations; i++) {
+            PooledByteBuffer pooled = pool.lease(1 + (i % 8192));
+            pooled.buffer().put((byte) i);
+            pooled.release();
+        }
+    }
+}
@@ -0,0 +1,98 @@
+package com.unisoft.core.util;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ContextCodecTest {
+    private final ContextCodec codec = new ContextCodec();
+
+    private static Stream<Arguments> malformedSupplier() {
+        return Stream.of(
+                Arguments.of((Object) new byte[0]),
+                // unknown format version.
+                Arguments.of((Object) new byte[]{2, 0}),
+                // entry length past the end of the input.
+                Arguments.of((Object) new byte[]{1, 1, 5, 'a'}),
+                // trailing bytes.
+                Arguments.of((Object) new byte[]{1, 0, 0}),
+                // length overflowing an int.
+                Arguments.of((Object) new byte[]{1, (byte) 0xff, (byte) 0xff, (byte) 0xff, (byte) 0xff, 0x7f})
+        );
+    }
+
+    @Test
+    void roundTripsVisibleStringEntries() {
+        Context context = new Context("tenant", "unisoft")
+                .addData("attempt", 1)
+                .addData("tenant", "é✓")
+                .addData("trace", "abc");
+        for (int i = 0; i < 100; i++) {
+            context = context.addData("key" + (i % 20), "value" + i);
+        }
+        Map<Object, Object> expected = new HashMap<>(context.getValues());
+        expected.remove("attempt");
+
+        assertEquals(expected, codec.decode(codec.encode(context)).getValues());
+        assertEquals(expected, codec.decodeHeader(codec.encodeToHeader(context)).getValues());
+    }
+
+    @Test
+    void decodedEntriesShadowParent() {
+        Context decoded = codec.decodeHeader(new Context("trace", "old").addData("tenant", "unisoft"),
+                codec.encodeToHeader(new Context("trace", "new")));
+
+        assertEquals("new", decoded.getData("trace").orElse(""));
+        assertEquals("unisoft", decoded.getData("tenant").orElse(""));
+        assertEquals(2, decoded.getValues().size());
+    }
+
+    @Test
+    void preservesOrder() {
+        Context decoded = codec.decode(codec.encode(Context.builder().put("a", "1").put("b", "2").build()));
+        List<Object> keys = new ArrayList<>();
+
+        decoded.forEach((key, value) -> keys.add(key));
+
+        assertEquals(List.of("b", "a"), keys);
+    }
+
+    @Test
+    void emptyContext() {
+        Context parent = new Context("key", "value");
+
+        assertSame(parent, codec.decode(parent, codec.encode(Context.NONE)));
+    }
+
+    @ParameterizedTest
+    @MethodSource("malformedSupplier")
+    void malformedInputIsRejected(byte[] encoded) {
+        assertThrows(IllegalArgumentException.class, () -> codec.decode(encoded));
+    }
+
+    @Test
+    void malformedHeaderIsRejected() {
+        assertThrows(IllegalArgumentException.class, () -> codec.decodeHeader("!!!"));
+    }
+
+    @Test
+    void sizeLimitsAreEnforced() {
+        Context twoEntries = new Context("a", "1").addData("b", "2");
+
+        assertThrows(IllegalArgumentException.class,
+                () -> new ContextCodec(16, 64).encode(new Context("key", "a value too long")));
+        assertThrows(IllegalArgumentException.class, () -> new ContextCodec(1024, 1).encode(twoEntries));
+        assertThrows(IllegalArgumentException.class,
+                () -> new ContextCodec(1024, 1).decode(codec.encode(twoEntries)));
+        assertThrows(IllegalArgumentException.class, () -> new ContextCodec(16, 64).decodeHeader("A".repeat(40)));
+    }
+}
@@ -0,0 +1,75 @@
+package com.unisoft.core.util;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Measures the per-call cost of converting a Reactor context into an Unisoft context, as done by
+ * {@link FluxUtil#withContext(java.util.function.Function)}, for contexts of 5, 20 and 50 entries.
+ * <p>
+ * Run with {@code mvn -B test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=com.unisoft.core.util.ContextConversionBenchmark}. Each case is measured after a warm-up pass;
+ * "distinct" converts a rotating set of contexts too large for the memoization cache, "repeated" converts the same
+ * context instance over and over, and "linked" is the previous one node per entry conversion, for reference.
+ *
+ * @author omar.H.Ajmi
+ * @since 16/10/2026
+ */
+public final class ContextConversionBenchmark {
+    private static final int ITERATIONS = 2_000_000;
+    private static final int DISTINCT_CONTEXTS = 1_024;
+
+    private ContextConversionBenchmark() {
+    }
+
+    public static void main(String[] args) {
+        for (int entries : new int[]{5, 20, 50}) {
+            reactor.util.context.Context[] contexts = new reactor.util.context.Context[DISTINCT_CONTEXTS];
+            for (int i = 0; i < contexts.length; i++) {
+                contexts[i] = reactorContext(entries, i);
+            }
+
+            for (int pass = 0; pass < 2; pass++) {
+                boolean report = pass == 1;
+                run(report, entries, "distinct", i -> FluxUtil.toUnisoftContext(contexts[i & (DISTINCT_CONTEXTS - 1)],
+                        Collections.emptyMap()));
+                run(report, entries, "repeated", i -> FluxUtil.toUnisoftContext(contexts[0], Collections.emptyMap()));
+                run(report, entries, "linked", i -> linked(contexts[i & (DISTINCT_CONTEXTS - 1)]));
+            }
+        }
+    }
+
+    private static reactor.util.context.Context reactorContext(int entries, int seed) {
+        Map<Object, Object> values = new HashMap<>();
+        for (int i = 0; i < entries; i++) {
+            values.put("key" + i, "value" + i + "-" + seed);
+        }
+        return reactor.util.context.Context.of(values);
+    }
+
+    private static Context linked(reactor.util.context.Context context) {
+        final Context[] unisoftContext = new Context[]{Context.NONE};
+        context.stream().forEach(entry ->
+                unisoftContext[0] = unisoftContext[0].addData(entry.getKey(), entry.getValue()));
+        return unisoftContext[0];
+    }
+
+    private static void run(boolean report, int entries, String name, Conversion conversion) {
+        Object sink = null;
+        long start = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) {
+            sink = conversion.convert(i);
+        }
+        long elapsed = System.nanoTime() - start;
+        if (report) {
+            System.out.printf("%2d entries %-9s %8.1f ns/op (%s)%n", entries, name, (double) elapsed / ITERATIONS,
+                    sink == null ? "-" : "ok");
+        }
+    }
+
+    @FunctionalInterface
+    private interface Conversion {
+        Context convert(int iteration);
+    }
+}
@@ -0,0 +1,79 @@
+package com.unisoft.core.util;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Measures the per-task cost of capturing and restoring the current context with {@link ContextPropagation}.
+ * <p>
+ * Run with {@code mvn -B test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=com.unisoft.core.util.ContextPropagationBenchmark}. Each case is measured after a warm-up pass;
+ * "bare" runs the task as is, "no context" wraps it without a current context, "captured" wraps it with a context of
+ * 20 entries, and the "executor" cases submit the tasks to a single thread executor, waiting for the last one.
+ *
+ * @author omar.H.Ajmi
+ * @since 16/10/2026
+ */
+public final class ContextPropagationBenchmark {
+    private static final int ITERATIONS = 5_000_000;
+    private static final int EXECUTOR_ITERATIONS = 500_000;
+
+    private static long counter;
+
+    private ContextPropagationBenchmark() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        Context.Builder builder = Context.builder();
+        for (int i = 0; i < 20; i++) {
+            builder.put("key" + i, "value" + i);
+        }
+        Context context = builder.build();
+        Runnable task = () -> counter += ContextPropagation.current() == Context.NONE ? 1 : 2;
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        ExecutorService wrapped = ContextPropagation.wrap(executor);
+
+        try {
+            for (int pass = 0; pass < 2; pass++) {
+                boolean report = pass == 1;
+                run(report, "bare", ITERATIONS, task);
+                run(report, "no context", ITERATIONS, () -> ContextPropagation.wrap(task).run());
+                try (ContextPropagation.Scope ignored = ContextPropagation.makeCurrent(context)) {
+                    run(report, "captured", ITERATIONS, () -> ContextPropagation.wrap(task).run());
+                }
+                runExecutor(report, "executor bare", executor, task);
+                try (ContextPropagation.Scope ignored = ContextPropagation.makeCurrent(context)) {
+                    runExecutor(report, "executor captured", wrapped, task);
+                }
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    private static void run(boolean report, String name, int iterations, Runnable iteration) {
+        long start = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            iteration.run();
+        }
+        report(report, name, iterations, System.nanoTime() - start);
+    }
+
+    private static void runExecutor(boolean report, String name, ExecutorService executor, Runnable task)
+            throws Exception {
+        Future<?> last = null;
+        long start = System.nanoTime();
+        for (int i = 0; i < EXECUTOR_ITERATIONS; i++) {
+            last = executor.submit(task);
+        }
+        last.get();
+        report(report, name, EXECUTOR_ITERATIONS, System.nanoTime() - start);
+    }
+
+    private static void report(boolean report, String name, int iterations, long elapsed) {
+        if (report) {
+            System.out.printf("%-18s %8.1f ns/task (%d)%n", name, (double) elapsed / iterations, counter);
+        }
+    }
+}
@@ -0,0 +1,105 @@
+package com.unisoft.core.util;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ContextPropagationTest {
+    private static final Callable<Object> TENANT = () -> ContextPropagation.current().getData("tenant").orElse("");
+
+    private final ExecutorService executor = Executors.newSingleThreadExecutor();
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor();
+
+    @AfterEach
+    void shutdown() {
+        executor.shutdownNow();
+        scheduler.shutdownNow();
+        ContextPropagation.resetSchedulerHook();
+    }
+
+    @Test
+    void scopeRestoresPreviousContext() {
+        Context outer = new Context("tenant", "outer");
+
+        assertSame(Context.NONE, ContextPropagation.current());
+        try (ContextPropagation.Scope ignored = ContextPropagation.makeCurrent(outer)) {
+            try (ContextPropagation.Scope ignored2 = ContextPropagation.makeCurrent(outer.addData("tenant", "inner"))) {
+                assertEquals("inner", ContextPropagation.current().getData("tenant").orElse(""));
+            }
+            assertSame(outer, ContextPropagation.current());
+        }
+        assertSame(Context.NONE, ContextPropagation.current());
+    }
+
+    @Test
+    void taskIsLeftUnwrappedWithoutContext() {
+        Runnable task = () -> {
+        };
+
+        assertSame(task, ContextPropagation.wrap(task));
+    }
+
+    @Test
+    void executorServicePropagatesContext() throws Exception {
+        ExecutorService wrapped = ContextPropagation.wrap(executor);
+        Future<Object> future;
+        List<Future<Object>> futures;
+        try (ContextPropagation.Scope ignored = ContextPropagation.makeCurrent(new Context("tenant", "unisoft"))) {
+            future = wrapped.submit(TENANT);
+            futures = wrapped.invokeAll(List.of(TENANT, TENANT));
+        }
+
+        assertEquals("unisoft", future.get());
+        assertEquals("unisoft", futures.get(1).get());
+        // the worker thread is back to no context once the task is done.
+        assertEquals("", wrapped.submit(TENANT).get());
+    }
+
+    @Test
+    void scheduledExecutorServicePropagatesContext() throws Exception {
+        ScheduledExecutorService wrapped = ContextPropagation.wrap(scheduler);
+        Future<Object> future;
+        try (ContextPropagation.Scope ignored = ContextPropagation.makeCurrent(new Context("tenant", "unisoft"))) {
+            future = wrapped.schedule(TENANT, 1, TimeUnit.MILLISECONDS);
+        }
+
+        assertEquals("unisoft", future.get());
+    }
+
+    @Test
+    void schedulerHookPropagatesContext() {
+        ContextPropagation.registerSchedulerHook();
+        Object tenant;
+        try (ContextPropagation.Scope ignored = ContextPropagation.makeCurrent(new Context("tenant", "unisoft"))) {
+            tenant = Mono.fromCallable(TENANT).subscribeOn(Schedulers.boundedElastic()).block();
+        }
+
+        assertEquals("unisoft", tenant);
+    }
+
+    @Test
+    void withContextPropagatesSubscriberContextToWrappedExecutor() {
+        ExecutorService wrapped = ContextPropagation.wrap(executor);
+
+        Object tenant = FluxUtil.withContext(context -> Mono.fromFuture(CompletableFuture.supplyAsync(() ->
+                ContextPropagation.current().getData("tenant").orElse(""), wrapped)))
+                .subscriberContext(reactor.util.context.Context.of("tenant", "unisoft"))
+                .block();
+
+        assertEquals("unisoft", tenant);
+        // the subscribing thread is back to no context once the service call is made.
+        assertSame(Context.NONE, ContextPropagation.current());
+    }
+}
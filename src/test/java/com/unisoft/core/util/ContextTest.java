@@ -6,8 +6,18 @@ import org.junit.jupiter.params.provider.Arguments;
 import org.junit.jupiter.params.provider.MethodSource;
 
 import java.util.Collections;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -126,4 +136,188 @@ class ContextTest {
         assertEquals("context{key=key, value=value}", context.toString());
         assertEquals("context{key=secondKey, value=secondValue, parent=" + context.toString() + "}", context.addData("secondKey", "secondValue").toString());
     }
+
+    @Test
+    void compactShadowsLikeAddData() {
+        Context compact = Context.compact(new Context("parent", "parentValue"),
+                new Object[]{"key", "key2", "key"}, new Object[]{"value", "value2", "newValue"}, 3);
+
+        assertEquals("newValue", compact.getData("key").orElse(""));
+        assertEquals("value2", compact.getData("key2").orElse(""));
+        assertEquals("parentValue", compact.getData("parent").orElse(""));
+
+        Map<Object, Object> expected = new HashMap<>();
+        expected.put("key", "newValue");
+        expected.put("key2", "value2");
+        expected.put("parent", "parentValue");
+        assertEquals(expected, compact.getValues());
+        assertEquals(new Context("parent", "parentValue").addData("key", "value").addData("key2", "value2")
+                .addData("key", "newValue").toString(), compact.toString());
+    }
+
+    @Test
+    void deepChainPreservesShadowing() {
+        Context context = new Context("key", "value");
+        Map<Object, Object> expected = new HashMap<>();
+        expected.put("key", "value");
+        for (int i = 0; i < 500; i++) {
+            context = context.addData("key" + (i % 50), i);
+            expected.put("key" + (i % 50), i);
+        }
+
+        assertEquals("value", context.getData("key").orElse(""));
+        assertEquals(499, context.getData("key49").orElse(""));
+        assertEquals(450, context.getData("key0").orElse(""));
+        assertFalse(context.getData("key50").isPresent());
+        assertEquals(expected, context.getValues());
+    }
+
+    @Test
+    void veryDeepChainDoesNotOverflowStack() {
+        Context context = Context.NONE;
+        for (int i = 0; i < 100_000; i++) {
+            context = context.addData("key" + i, i);
+        }
+
+        assertEquals(0, context.getData("key0").orElse(""));
+        assertEquals(100_000, context.getValues().size());
+        assertTrue(context.toString().startsWith("context{key="));
+    }
+
+    @Test
+    void typedKeyLookup() {
+        ContextKey<String> tenant = ContextKey.of("tenant", String.class);
+        ContextKey<Integer> attempt = ContextKey.of("attempt", Integer.class);
+        Context context = Context.NONE.addData(tenant, "unisoft").addData("key", "value");
+
+        assertEquals("unisoft", context.get(tenant));
+        assertEquals("unisoft", context.getOrNull(tenant));
+        assertNull(context.getOrNull(attempt));
+        assertEquals(3, context.getOrDefault(attempt, 3));
+        assertThrows(NoSuchElementException.class, () -> context.get(attempt));
+        assertThrows(IllegalArgumentException.class, () -> context.getOrNull(null));
+    }
+
+    @Test
+    void typedKeysAreComparedByIdentity() {
+        ContextKey<String> first = ContextKey.of("key", String.class);
+        ContextKey<String> second = ContextKey.of("key", String.class);
+        Context context = Context.NONE.addData(first, "first").addData("key", "untyped");
+
+        assertNotEquals(first, second);
+        assertEquals("first", context.get(first));
+        assertNull(context.getOrNull(second));
+        assertEquals("untyped", context.getData("key").orElse(""));
+    }
+
+    @Test
+    void typedKeysInteroperateWithObjectKeys() {
+        ContextKey<Integer> attempt = ContextKey.of("attempt", Integer.class);
+        Context context = new Context(attempt, 1);
+        for (int i = 0; i < 100; i++) {
+            context = context.addData("key" + i, i);
+        }
+
+        assertEquals(1, context.get(attempt));
+        assertEquals(1, context.getData(attempt, Integer.class).orElse(0));
+        assertEquals(1, context.getValues().get(attempt));
+        assertThrows(ClassCastException.class, () -> new Context(attempt, "one").get(attempt));
+    }
+
+    @Test
+    void typedKeyCannotBePrimitive() {
+        assertThrows(IllegalArgumentException.class, () -> ContextKey.of("attempt", int.class));
+    }
+
+    @Test
+    void addAllShadowsLikeAddData() {
+        Map<Object, Object> keyValues = new LinkedHashMap<>();
+        keyValues.put("key", "newValue");
+        keyValues.put("key2", "value2");
+        Context context = new Context("key", "value").addData("key3", "value3").addAll(keyValues);
+
+        assertEquals("newValue", context.getData("key").orElse(""));
+        assertEquals("value2", context.getData("key2").orElse(""));
+        assertEquals("value3", context.getData("key3").orElse(""));
+        assertSame(context, context.addAll(Collections.emptyMap()));
+        assertThrows(IllegalArgumentException.class,
+                () -> context.addAll(Collections.singletonMap(null, "value")));
+    }
+
+    @Test
+    void builder() {
+        ContextKey<Integer> attempt = ContextKey.of("attempt", Integer.class);
+        Context.Builder builder = Context.builder()
+                .put("key", "value")
+                .put(attempt, 1)
+                .put("key", "newValue");
+        Context context = builder.build();
+        Context child = builder.put("key2", "value2").build(new Context("key3", "value3"));
+
+        assertEquals("newValue", context.getData("key").orElse(""));
+        assertEquals(1, context.get(attempt));
+        assertFalse(context.getData("key2").isPresent());
+        assertEquals("value2", child.getData("key2").orElse(""));
+        assertEquals("value3", child.getData("key3").orElse(""));
+        assertSame(Context.NONE, Context.builder().build());
+    }
+
+    @Test
+    void forEachVisitsVisibleEntriesMostRecentFirst() {
+        Context context = Context.builder().put("key", "value").put("key2", "value2").put("key", "value3").build()
+                .addData("key4", "value4")
+                .addData("key2", null);
+        List<String> visited = new ArrayList<>();
+
+        context.forEach((key, value) -> visited.add(key + "=" + value));
+
+        assertEquals(List.of("key2=null", "key4=value4", "key=value3"), visited);
+        assertNull(context.getValues().get("key2"));
+        assertTrue(context.getValues().containsKey("key2"));
+    }
+
+    @Test
+    void forEachOnDeepChain() {
+        Context context = Context.NONE;
+        for (int i = 0; i < 500; i++) {
+            context = context.addData("key" + (i % 50), i);
+        }
+        Map<Object, Object> visited = new HashMap<>();
+
+        context.forEach((key, value) -> assertNull(visited.put(key, value)));
+
+        assertEquals(50, visited.size());
+        assertEquals(499, visited.get("key49"));
+        assertEquals(450, visited.get("key0"));
+    }
+
+    @Test
+    void lazyNodeIsLoadedOnceAcrossThreads() throws Exception {
+        for (int round = 0; round < 100; round++) {
+            AtomicInteger loads = new AtomicInteger();
+            Context context = Context.lazy(new Context("parent", "value"), () -> {
+                loads.incrementAndGet();
+                return Context.builder().put("key", "lazy").build();
+            });
+            CountDownLatch start = new CountDownLatch(1);
+            ExecutorService executor = Executors.newFixedThreadPool(8);
+            try {
+                List<Future<Object>> lookups = new ArrayList<>();
+                for (int i = 0; i < 8; i++) {
+                    lookups.add(executor.submit(() -> {
+                        start.await();
+                        return context.getData("key").orElse(null);
+                    }));
+                }
+                start.countDown();
+                for (Future<Object> lookup : lookups) {
+                    assertEquals("lazy", lookup.get(10, TimeUnit.SECONDS));
+                }
+            } finally {
+                executor.shutdownNow();
+            }
+            assertEquals(1, loads.get());
+            assertEquals("value", context.getData("parent").orElse(null));
+        }
+    }
 }
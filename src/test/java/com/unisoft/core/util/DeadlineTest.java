@@ -0,0 +1,42 @@
+package com.unisoft.core.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DeadlineTest {
+    @Test
+    void remaining() {
+        Deadline deadline = Deadline.after(Duration.ofSeconds(10));
+
+        assertFalse(deadline.isExpired());
+        assertTrue(deadline.remaining().compareTo(Duration.ofSeconds(10)) <= 0);
+        assertTrue(Deadline.after(Duration.ZERO).isExpired());
+        assertEquals(Duration.ZERO, Deadline.after(Duration.ofSeconds(-1)).remaining());
+        assertFalse(Deadline.after(Duration.ofSeconds(Long.MAX_VALUE)).isExpired());
+    }
+
+    @Test
+    void earliest() {
+        Deadline deadline = Deadline.after(Duration.ofSeconds(10));
+        Deadline shrunk = deadline.shrink(Duration.ofSeconds(1));
+
+        assertTrue(shrunk.compareTo(deadline) < 0);
+        assertSame(shrunk, deadline.earliest(shrunk));
+        assertSame(deadline, deadline.earliest(null));
+    }
+
+    @Test
+    void addToKeepsEarliest() {
+        Deadline deadline = Deadline.after(Duration.ofSeconds(10));
+        Context context = deadline.addTo(new Context("key", "value"));
+
+        assertSame(deadline, Deadline.from(context));
+        assertSame(context, Deadline.after(Duration.ofSeconds(20)).addTo(context));
+        Deadline earlier = Deadline.after(Duration.ofSeconds(1));
+        assertSame(earlier, Deadline.from(earlier.addTo(context)));
+        assertNull(Deadline.from(Context.NONE));
+    }
+}
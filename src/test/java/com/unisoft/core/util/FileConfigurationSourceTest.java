@@ -0,0 +1,189 @@
+package com.unisoft.core.util;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FileConfigurationSourceTest {
+    /*
+     * Bound on the reload latency, generous as some platforms poll the file system rather than being notified.
+     */
+    private static final long TIMEOUT_SECONDS = 30;
+
+    @Test
+    void configurationIsReloadedWhenFileChanges(@TempDir Path tempDir) throws Exception {
+        Path file = write(tempDir, "timeout=1\npoolSize=4\n");
+        try (FileConfigurationSource source = FileConfigurationSource.watch(file, Duration.ofMillis(50))) {
+            UnisoftConfiguration configuration = new UnisoftConfiguration(List.of(source));
+            BlockingQueue<ConfigurationSnapshot> changes = new LinkedBlockingQueue<>();
+            configuration.addListener((previous, current) -> changes.add(current));
+            assertEquals("1", configuration.get("timeout"));
+
+            write(tempDir, "timeout=2\npoolSize=4\n");
+            ConfigurationSnapshot change = changes.poll(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+
+            assertNotNull(change, "no reload within " + TIMEOUT_SECONDS + " seconds");
+            assertEquals("2", change.get("timeout"));
+            assertEquals("2", configuration.get("timeout"));
+            assertEquals("4", configuration.get("poolSize"));
+            assertEquals(1, configuration.getVersion());
+        }
+    }
+
+    @Test
+    void clonesAreReloadedWhenFileChanges(@TempDir Path tempDir) throws Exception {
+        Path file = write(tempDir, "timeout=1\n");
+        try (FileConfigurationSource source = FileConfigurationSource.watch(file, Duration.ofMillis(50))) {
+            UnisoftConfiguration clone = new UnisoftConfiguration(List.of(source)).clone().put("poolSize", "4");
+            BlockingQueue<ConfigurationSnapshot> changes = new LinkedBlockingQueue<>();
+            clone.addListener((previous, current) -> changes.add(current));
+
+            write(tempDir, "timeout=2\n");
+            ConfigurationSnapshot change = changes.poll(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+
+            assertNotNull(change, "no reload within " + TIMEOUT_SECONDS + " seconds");
+            assertEquals("2", clone.get("timeout"));
+            assertEquals("4", clone.get("poolSize"));
+        }
+    }
+
+    @Test
+    void inFlightReadsStayConsistent(@TempDir Path tempDir) throws Exception {
+        Path file = write(tempDir, "first=0\nsecond=0\n");
+        try (FileConfigurationSource source = FileConfigurationSource.watch(file, Duration.ofMillis(10))) {
+            UnisoftConfiguration configuration = new UnisoftConfiguration(List.of(source));
+            AtomicBoolean done = new AtomicBoolean();
+            AtomicReference<String> inconsistency = new AtomicReference<>();
+            AtomicInteger reads = new AtomicInteger();
+            Thread[] readers = new Thread[4];
+            for (int i = 0; i < readers.length; i++) {
+                readers[i] = new Thread(() -> {
+                    while (!done.get()) {
+                        ConfigurationSnapshot snapshot = configuration.snapshot();
+                        if (!Objects.equals(snapshot.get("first"), snapshot.get("second"))) {
+                            inconsistency.set(snapshot.toString());
+                        }
+                        reads.incrementAndGet();
+                    }
+                });
+                readers[i].start();
+            }
+
+            CountDownLatch last = new CountDownLatch(1);
+            configuration.addListener((previous, current) -> {
+                if ("20".equals(current.get("first"))) {
+                    last.countDown();
+                }
+            });
+            for (int i = 1; i <= 20; i++) {
+                write(tempDir, "first=" + i + "\nsecond=" + i + "\n");
+                Thread.sleep(15);
+            }
+
+            assertTrue(last.await(TIMEOUT_SECONDS, TimeUnit.SECONDS), "last change never loaded");
+            done.set(true);
+            for (Thread reader : readers) {
+                reader.join();
+            }
+            assertNull(inconsistency.get());
+            assertTrue(reads.get() > 0);
+            assertEquals("20", configuration.get("second"));
+        }
+    }
+
+    @Test
+    void burstOfWritesIsCoalesced(@TempDir Path tempDir) throws Exception {
+        Path file = write(tempDir, "value=0\n");
+        try (FileConfigurationSource source = FileConfigurationSource.watch(file, Duration.ofMillis(500))) {
+            AtomicInteger reloads = new AtomicInteger();
+            CountDownLatch last = new CountDownLatch(1);
+            source.addChangeListener(() -> {
+                reloads.incrementAndGet();
+                if ("10".equals(source.get("value"))) {
+                    last.countDown();
+                }
+            });
+
+            for (int i = 1; i <= 10; i++) {
+                write(tempDir, "value=" + i + "\n");
+            }
+
+            assertTrue(last.await(TIMEOUT_SECONDS, TimeUnit.SECONDS), "last change never loaded");
+            assertTrue(reloads.get() < 10, reloads.get() + " reloads");
+        }
+    }
+
+    @Test
+    void writesToOtherFilesDoNotPostponeTheReload(@TempDir Path tempDir) throws Exception {
+        Path file = write(tempDir, "value=0\n");
+        try (FileConfigurationSource source = FileConfigurationSource.watch(file, Duration.ofMillis(500))) {
+            CountDownLatch reloaded = new CountDownLatch(1);
+            source.addChangeListener(reloaded::countDown);
+            AtomicBoolean done = new AtomicBoolean();
+            Thread noise = new Thread(() -> {
+                try {
+                    for (int i = 0; !done.get(); i++) {
+                        Files.writeString(tempDir.resolve("other.txt"), "i=" + i);
+                        Thread.sleep(50);
+                    }
+                } catch (IOException | InterruptedException e) {
+                    // the test fails on the missing reload.
+                }
+            });
+            noise.start();
+            try {
+                write(tempDir, "value=1\n");
+
+                assertTrue(reloaded.await(TIMEOUT_SECONDS, TimeUnit.SECONDS), "reload postponed by other files");
+                assertEquals("1", source.get("value"));
+            } finally {
+                done.set(true);
+                noise.join();
+            }
+        }
+    }
+
+    @Test
+    void closedSourceKeepsLastContent(@TempDir Path tempDir) throws Exception {
+        Path file = write(tempDir, "value=0\n");
+        FileConfigurationSource source = FileConfigurationSource.watch(file);
+        source.close();
+
+        write(tempDir, "value=1\n");
+        Thread.sleep(200);
+        assertEquals("0", source.get("value"));
+    }
+
+    @Test
+    void missingFileIsRejected(@TempDir Path tempDir) {
+        assertThrows(UncheckedIOException.class, () -> FileConfigurationSource.watch(tempDir.resolve("missing")));
+        assertThrows(IllegalArgumentException.class,
+                () -> FileConfigurationSource.watch(tempDir.resolve("missing"), Duration.ofMillis(-1)));
+    }
+
+    /*
+     * Replaces the configuration file atomically, as deployments should.
+     */
+    private static Path write(Path directory, String content) throws IOException {
+        Path temporary = Files.writeString(directory.resolve("configuration.tmp"), content);
+        return Files.move(temporary, directory.resolve("configuration.properties"), StandardCopyOption.ATOMIC_MOVE,
+                StandardCopyOption.REPLACE_EXISTING);
+    }
+}
@@ -1,18 +1,684 @@
 package com.unisoft.core.util;
 
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.junit.jupiter.params.provider.ValueSource;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.lang.ref.WeakReference;
 import java.lang.reflect.Method;
 import java.lang.reflect.Type;
 import java.nio.ByteBuffer;
+import java.nio.channels.AsynchronousFileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
 
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 class FluxUtilTest {
 
+    private static byte[] randomBytes(int size) {
+        byte[] bytes = new byte[size];
+        new Random(size).nextBytes(bytes);
+        return bytes;
+    }
+
+    private static Flux<ByteBuffer> chunked(byte[] bytes, int chunkSize) {
+        return Flux.range(0, (bytes.length + chunkSize - 1) / chunkSize)
+                .map(i -> {
+                    int offset = i * chunkSize;
+                    int length = Math.min(chunkSize, bytes.length - offset);
+                    ByteBuffer buffer = ByteBuffer.allocateDirect(length);
+                    buffer.put(bytes, offset, length).flip();
+                    return buffer;
+                });
+    }
+
+    @Test
+    void collectBytesInByteBufferStream() {
+        byte[] expected = randomBytes(100_000);
+        assertArrayEquals(expected, FluxUtil.collectBytesInByteBufferStream(chunked(expected, 3_000)).block());
+    }
+
+    @Test
+    void collectBytesInByteBufferStreamEmpty() {
+        assertArrayEquals(new byte[0], FluxUtil.collectBytesInByteBufferStream(Flux.empty()).block());
+    }
+
+    @ParameterizedTest
+    @ValueSource(longs = {0, 1_000, 100_000, 250_000})
+    void collectBytesInByteBufferStreamWithSizeHint(long sizeHint) {
+        byte[] expected = randomBytes(100_000);
+        assertArrayEquals(expected,
+                FluxUtil.collectBytesInByteBufferStream(chunked(expected, 3_000), sizeHint).block());
+    }
+
+    @Test
+    void collectBytesInByteBufferStreamNegativeSizeHint() {
+        assertThrows(IllegalArgumentException.class,
+                () -> FluxUtil.collectBytesInByteBufferStream(Flux.empty(), -1));
+    }
+
+    @Test
+    void readFile(@TempDir Path tempDir) throws IOException {
+        byte[] content = randomBytes(100_003);
+        Path file = Files.write(tempDir.resolve("readFile.bin"), content);
+
+        List<ByteBuffer> chunks = FluxUtil.readFile(file, 0, content.length, 4096).collectList().block();
+
+        assertNotNull(chunks);
+        assertEquals(25, chunks.size());
+        assertTrue(chunks.stream().allMatch(ByteBuffer::isReadOnly));
+        assertArrayEquals(content, FluxUtil.collectBytesInByteBufferStream(Flux.fromIterable(chunks)).block());
+    }
+
+    @Test
+    void readFileRegionIsTruncatedAtEndOfFile(@TempDir Path tempDir) throws IOException {
+        byte[] content = randomBytes(10_000);
+        Path file = Files.write(tempDir.resolve("readFileRegion.bin"), content);
+
+        assertArrayEquals(Arrays.copyOfRange(content, 9_000, 10_000),
+                FluxUtil.collectBytesInByteBufferStream(FluxUtil.readFile(file, 9_000, 5_000, 300)).block());
+        assertArrayEquals(new byte[0],
+                FluxUtil.collectBytesInByteBufferStream(FluxUtil.readFile(file, 20_000, 10, 300)).block());
+    }
+
+    @Test
+    void readFileToEndOfFile(@TempDir Path tempDir) throws IOException {
+        byte[] content = randomBytes(10_000);
+        Path file = Files.write(tempDir.resolve("readFileToEnd.bin"), content);
+
+        assertArrayEquals(Arrays.copyOfRange(content, 1_234, 10_000),
+                FluxUtil.collectBytesInByteBufferStream(FluxUtil.readFile(file, 1_234, Long.MAX_VALUE, 300)).block());
+        assertArrayEquals(new byte[0], FluxUtil.collectBytesInByteBufferStream(
+                FluxUtil.readFile(file, Long.MAX_VALUE, Long.MAX_VALUE, 300)).block());
+    }
+
+    @Test
+    void readFileInvalidArguments(@TempDir Path tempDir) {
+        Path file = tempDir.resolve("invalid.bin");
+
+        assertThrows(IllegalArgumentException.class, () -> FluxUtil.readFile(file, -1, 10, 10));
+        assertThrows(IllegalArgumentException.class, () -> FluxUtil.readFile(file, 0, -1, 10));
+        assertThrows(IllegalArgumentException.class, () -> FluxUtil.readFile(file, 0, 10, 0));
+    }
+
+    @Test
+    void writeFile(@TempDir Path tempDir) throws IOException {
+        byte[] content = randomBytes(100_000);
+        Path file = tempDir.resolve("writeFile.bin");
+
+        try (AsynchronousFileChannel channel = AsynchronousFileChannel.open(file, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE)) {
+            FluxUtil.writeFile(chunked(content, 3_000), channel, 10).block();
+        }
+
+        byte[] written = Files.readAllBytes(file);
+        assertEquals(100_010, written.length);
+        assertArrayEquals(content, Arrays.copyOfRange(written, 10, written.length));
+    }
+
+    @Test
+    void writeFileChunks(@TempDir Path tempDir) throws IOException {
+        byte[] content = randomBytes(100_000);
+        Path file = tempDir.resolve("writeFileChunks.bin");
+        // chunks are emitted back to front, their positions alone place them in the file.
+        Flux<FileChunk> chunks = Flux.range(0, 10)
+                .map(i -> 9 - i)
+                .map(i -> new FileChunk(i * 10_000L, ByteBuffer.wrap(content, i * 10_000, 10_000)));
+
+        try (AsynchronousFileChannel channel = AsynchronousFileChannel.open(file, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE)) {
+            FluxUtil.writeFileChunks(chunks, channel, 4).block();
+        }
+
+        assertArrayEquals(content, Files.readAllBytes(file));
+    }
+
+    @Test
+    void writeFileInvalidArguments(@TempDir Path tempDir) throws IOException {
+        try (AsynchronousFileChannel channel = AsynchronousFileChannel.open(tempDir.resolve("invalid.bin"),
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE)) {
+            assertThrows(IllegalArgumentException.class, () -> FluxUtil.writeFile(Flux.empty(), channel, -1));
+            assertThrows(IllegalArgumentException.class, () -> FluxUtil.writeFileChunks(Flux.empty(), channel, 0));
+        }
+    }
+
+    @Test
+    void toInputStream() throws IOException {
+        byte[] content = randomBytes(100_000);
+
+        try (InputStream inputStream = FluxUtil.toInputStream(chunked(content, 3_000), 4)) {
+            assertArrayEquals(content, inputStream.readAllBytes());
+        }
+    }
+
+    @Test
+    void toInputStreamRequestsOnDemand() throws IOException {
+        AtomicLong requested = new AtomicLong();
+        AtomicBoolean cancelled = new AtomicBoolean();
+        Flux<ByteBuffer> stream = chunked(randomBytes(100_000), 1_000)
+                .doOnRequest(requested::addAndGet)
+                .doOnCancel(() -> cancelled.set(true));
+
+        InputStream inputStream = FluxUtil.toInputStream(stream, 4);
+        assertEquals(0, requested.get());
+
+        assertEquals(1_000, inputStream.read(new byte[1_000]));
+        assertEquals(4, requested.get());
+        assertEquals(1_000, inputStream.read(new byte[1_000]));
+        assertEquals(5, requested.get());
+
+        inputStream.close();
+        assertTrue(cancelled.get());
+        assertThrows(IOException.class, inputStream::read);
+    }
+
+    @Test
+    void toInputStreamCloseWakesUpBlockedReader() throws Exception {
+        AtomicBoolean cancelled = new AtomicBoolean();
+        InputStream inputStream = FluxUtil.toInputStream(Flux.<ByteBuffer>never()
+                .doOnCancel(() -> cancelled.set(true)), 1);
+        CompletableFuture<Integer> read = CompletableFuture.supplyAsync(() -> {
+            try {
+                return inputStream.read();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+
+        Thread.sleep(100);
+        assertFalse(read.isDone());
+        inputStream.close();
+
+        ExecutionException error = assertThrows(ExecutionException.class, () -> read.get(10, TimeUnit.SECONDS));
+        assertTrue(error.getCause() instanceof UncheckedIOException);
+        assertTrue(cancelled.get());
+    }
+
+    @Test
+    void toInputStreamPropagatesErrors() {
+        InputStream inputStream = FluxUtil.toInputStream(Flux.error(new IllegalStateException("boom")), 1);
+
+        IOException error = assertThrows(IOException.class, inputStream::read);
+        assertTrue(error.getCause() instanceof IllegalStateException);
+    }
+
+    @Test
+    void fromOutputStream() {
+        byte[] content = randomBytes(100_000);
+
+        List<ByteBuffer> chunks = FluxUtil.fromOutputStream(outputStream -> {
+            outputStream.write(content, 0, 50_000);
+            outputStream.flush();
+            outputStream.write(content, 50_000, 50_000);
+        }, 8_192).collectList().block();
+
+        assertNotNull(chunks);
+        assertTrue(chunks.stream().allMatch(chunk -> chunk.remaining() <= 8_192));
+        assertArrayEquals(content, FluxUtil.collectBytesInByteBufferStream(Flux.fromIterable(chunks)).block());
+    }
+
+    @Test
+    void fromOutputStreamStopsWriterOnCancel() throws InterruptedException {
+        CountDownLatch writerFailed = new CountDownLatch(1);
+
+        List<ByteBuffer> chunks = FluxUtil.fromOutputStream(outputStream -> {
+            try {
+                while (true) {
+                    outputStream.write(new byte[1_024]);
+                }
+            } catch (IOException e) {
+                writerFailed.countDown();
+                throw e;
+            }
+        }, 1_024).take(3).collectList().block();
+
+        assertNotNull(chunks);
+        assertEquals(3, chunks.size());
+        assertTrue(writerFailed.await(10, TimeUnit.SECONDS));
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {1, 100, 4_096, 200_000})
+    void rechunk(int chunkSize) {
+        byte[] content = randomBytes(100_000);
+        Flux<ByteBuffer> stream = Flux.concat(Flux.just(chunked(content, 30), chunked(content, 7_000)));
+
+        List<ByteBuffer> chunks = FluxUtil.rechunk(stream, chunkSize).collectList().block();
+
+        assertNotNull(chunks);
+        for (int i = 0; i < chunks.size() - 1; i++) {
+            assertEquals(chunkSize, chunks.get(i).remaining());
+        }
+        byte[] expected = new byte[200_000];
+        System.arraycopy(content, 0, expected, 0, 100_000);
+        System.arraycopy(content, 0, expected, 100_000, 100_000);
+        assertArrayEquals(expected, FluxUtil.collectBytesInByteBufferStream(Flux.fromIterable(chunks)).block());
+    }
+
+    @Test
+    void rechunkFlushesPendingBytesAfterMaxLatency() {
+        Flux<ByteBuffer> stream = Flux.concat(Mono.just(ByteBuffer.wrap(new byte[10])),
+                Mono.delay(Duration.ofSeconds(1)).map(tick -> ByteBuffer.wrap(new byte[10])));
+
+        List<ByteBuffer> chunks = FluxUtil.rechunk(stream, 1_000, Duration.ofMillis(100)).collectList().block();
+
+        assertNotNull(chunks);
+        assertEquals(2, chunks.size());
+        assertEquals(10, chunks.get(0).remaining());
+        assertEquals(10, chunks.get(1).remaining());
+    }
+
+    @Test
+    void rechunkFlushesMaxLatencyAfterTheFirstPendingByte() {
+        StepVerifier.withVirtualTime(() -> FluxUtil.rechunk(Flux.concat(
+                Mono.delay(Duration.ofMillis(250)).map(tick -> ByteBuffer.wrap(new byte[10])),
+                Mono.delay(Duration.ofMillis(50)).map(tick -> ByteBuffer.wrap(new byte[10])),
+                Mono.delay(Duration.ofSeconds(1)).then(Mono.<ByteBuffer>empty())), 1_000, Duration.ofMillis(100)))
+                .expectSubscription()
+                .expectNoEvent(Duration.ofMillis(350))
+                .assertNext(chunk -> assertEquals(20, chunk.remaining()))
+                .thenAwait(Duration.ofSeconds(1))
+                .verifyComplete();
+    }
+
+    @ParameterizedTest
+    @CsvSource({"CRC32, cbf43926", "CRC32C, e3069283", "MD5, 25f9e794323b453885f5181f1b624d0b",
+            "SHA_256, 15e2b0d3c33891ebb0f1ef609ec419420c20e320ce94c65fbc8c3312448eb225"})
+    void digest(ChecksumAlgorithm algorithm, String expectedHex) {
+        byte[] content = "123456789".getBytes(StandardCharsets.US_ASCII);
+        ByteBuffer direct = ByteBuffer.allocateDirect(4).put(content, 0, 4).flip();
+        DigestedContent digested = FluxUtil.digest(Flux.just(direct, ByteBuffer.wrap(content, 4, 5)), algorithm);
+
+        assertArrayEquals(content, FluxUtil.collectBytesInByteBufferStream(digested.content()).block());
+        assertEquals(expectedHex, toHex(digested.digest().block()));
+    }
+
+    @Test
+    void digestFailsWhenContentFails() {
+        DigestedContent digested = FluxUtil.digest(Flux.error(new IllegalStateException("boom")),
+                ChecksumAlgorithm.SHA_256);
+
+        assertThrows(IllegalStateException.class, () -> digested.content().blockLast());
+        assertThrows(IllegalStateException.class, () -> digested.digest().block());
+    }
+
+    @Test
+    void digestFailsWhenContentIsCancelled() {
+        byte[] content = randomBytes(1_000);
+        DigestedContent digested = FluxUtil.digest(chunked(content, 100), ChecksumAlgorithm.SHA_256);
+
+        assertEquals(3L, digested.content().take(3).count().block());
+        assertThrows(CancellationException.class, () -> digested.digest().block(Duration.ofSeconds(5)));
+    }
+
+    @Test
+    void verifyDigest() {
+        byte[] content = "123456789".getBytes(StandardCharsets.US_ASCII);
+        byte[] crc = new byte[]{(byte) 0xcb, (byte) 0xf4, 0x39, 0x26};
+
+        assertArrayEquals(content, FluxUtil.collectBytesInByteBufferStream(
+                FluxUtil.verifyDigest(chunked(content, 2), ChecksumAlgorithm.CRC32, crc)).block());
+
+        crc[3] = 0;
+        assertThrows(IllegalStateException.class, () -> FluxUtil.collectBytesInByteBufferStream(
+                FluxUtil.verifyDigest(chunked(content, 2), ChecksumAlgorithm.CRC32, crc)).block());
+    }
+
+    private static String toHex(byte[] bytes) {
+        StringBuilder hex = new StringBuilder();
+        for (byte b : bytes) {
+            hex.append(String.format("%02x", b));
+        }
+        return hex.toString();
+    }
+
+    @Test
+    void transferRanges() {
+        byte[] content = randomBytes(100_000);
+        // later ranges complete first, the output must still be in order.
+        Function<ByteRange, Flux<ByteBuffer>> fetcher = range -> chunked(
+                Arrays.copyOfRange(content, (int) range.offset(), (int) (range.offset() + range.length())), 1_000)
+                .delayElements(Duration.ofMillis(Math.max(1, 50 - range.offset() / 2_000)));
+
+        Flux<ByteBuffer> transfer = FluxUtil.transferRanges(new ByteRange(5_000, 90_000), fetcher,
+                new ParallelTransferOptions().setRangeSize(10_000).setParallelism(4).setMaxBufferedChunksPerRange(2));
+
+        assertArrayEquals(Arrays.copyOfRange(content, 5_000, 95_000),
+                FluxUtil.collectBytesInByteBufferStream(transfer).block());
+    }
+
+    @Test
+    void transferRangesRetriesFromLastReceivedByte() {
+        byte[] content = randomBytes(30_000);
+        List<ByteRange> requested = new CopyOnWriteArrayList<>();
+        AtomicBoolean failed = new AtomicBoolean();
+        Function<ByteRange, Flux<ByteBuffer>> fetcher = range -> {
+            requested.add(range);
+            Flux<ByteBuffer> fetched = chunked(
+                    Arrays.copyOfRange(content, (int) range.offset(), (int) (range.offset() + range.length())), 1_000);
+            return range.offset() == 10_000 && failed.compareAndSet(false, true)
+                    ? fetched.take(3).concatWith(Flux.error(new IOException("connection reset")))
+                    : fetched;
+        };
+
+        Flux<ByteBuffer> transfer = FluxUtil.transferRanges(new ByteRange(0, 30_000), fetcher,
+                new ParallelTransferOptions().setRangeSize(10_000));
+
+        assertArrayEquals(content, FluxUtil.collectBytesInByteBufferStream(transfer).block());
+        assertTrue(requested.contains(new ByteRange(13_000, 7_000)));
+    }
+
+    @Test
+    void transferRangesFailsAfterMaxRetries() {
+        Flux<ByteBuffer> transfer = FluxUtil.transferRanges(new ByteRange(0, 100),
+                range -> Flux.error(new IllegalStateException("unavailable")),
+                new ParallelTransferOptions().setMaxRetriesPerRange(2));
+
+        assertThrows(IllegalStateException.class, transfer::blockLast);
+    }
+
+    @Test
+    void transferRangesDoesNotRequestFullyReceivedRanges() {
+        byte[] content = randomBytes(10_000);
+        List<ByteRange> requested = new CopyOnWriteArrayList<>();
+        Function<ByteRange, Flux<ByteBuffer>> fetcher = range -> {
+            requested.add(range);
+            return chunked(content, 1_000).concatWith(Flux.error(new IOException("connection reset")));
+        };
+
+        Flux<ByteBuffer> transfer = FluxUtil.transferRanges(new ByteRange(0, 10_000), fetcher,
+                new ParallelTransferOptions().setRangeSize(10_000));
+
+        assertArrayEquals(content, FluxUtil.collectBytesInByteBufferStream(transfer).block());
+        assertEquals(Collections.singletonList(new ByteRange(0, 10_000)), requested);
+    }
+
+    @Test
+    void transferRangesRetriesShortRanges() {
+        byte[] content = randomBytes(10_000);
+        List<ByteRange> requested = new CopyOnWriteArrayList<>();
+        Function<ByteRange, Flux<ByteBuffer>> fetcher = range -> {
+            requested.add(range);
+            // serves at most half of the requested bytes.
+            int length = (int) Math.max(1, range.length() / 2);
+            return Flux.just(ByteBuffer.wrap(content, (int) range.offset(), length));
+        };
+
+        Flux<ByteBuffer> transfer = FluxUtil.transferRanges(new ByteRange(0, 10_000), fetcher,
+                new ParallelTransferOptions().setRangeSize(10_000).setMaxRetriesPerRange(20));
+
+        assertArrayEquals(content, FluxUtil.collectBytesInByteBufferStream(transfer).block());
+        assertEquals(new ByteRange(5_000, 5_000), requested.get(1));
+    }
+
+    @Test
+    void transferRangesFailsOnShortRangesAfterMaxRetries() {
+        Flux<ByteBuffer> transfer = FluxUtil.transferRanges(new ByteRange(0, 100),
+                range -> Flux.empty(), new ParallelTransferOptions().setMaxRetriesPerRange(2));
+
+        assertThrows(IllegalStateException.class, transfer::blockLast);
+    }
+
+    @Test
+    void transferRangesOfOpenEndedRange() {
+        List<ByteRange> requested = new CopyOnWriteArrayList<>();
+        Function<ByteRange, Flux<ByteBuffer>> fetcher = range -> {
+            requested.add(range);
+            return Flux.just(ByteBuffer.allocate((int) range.length()));
+        };
+
+        Flux<ByteBuffer> transfer = FluxUtil.transferRanges(new ByteRange(Long.MAX_VALUE - 10, Long.MAX_VALUE),
+                fetcher, new ParallelTransferOptions());
+
+        assertEquals(10, FluxUtil.collectBytesInByteBufferStream(transfer).block().length);
+        assertEquals(Collections.singletonList(new ByteRange(Long.MAX_VALUE - 10, 10)), requested);
+    }
+
+    @Test
+    void transferRangesOfOpenEndedRangeEndsWithTheContent() {
+        byte[] content = randomBytes(25_500);
+        List<ByteRange> requested = new CopyOnWriteArrayList<>();
+        Function<ByteRange, Flux<ByteBuffer>> fetcher = range -> {
+            requested.add(range);
+            if (range.offset() >= content.length) {
+                return Flux.error(new IOException("range not satisfiable"));
+            }
+            int end = (int) Math.min(content.length, range.offset() + range.length());
+            return chunked(Arrays.copyOfRange(content, (int) range.offset(), end), 1_000);
+        };
+
+        Flux<ByteBuffer> transfer = FluxUtil.transferRanges(new ByteRange(5_000, Long.MAX_VALUE), fetcher,
+                new ParallelTransferOptions().setRangeSize(10_000).setParallelism(4).setMaxRetriesPerRange(1));
+
+        assertArrayEquals(Arrays.copyOfRange(content, 5_000, content.length),
+                FluxUtil.collectBytesInByteBufferStream(transfer).block());
+        assertTrue(requested.contains(new ByteRange(25_000, 10_000)));
+    }
+
+    @Test
+    void byteRangeFormat() {
+        assertEquals("bytes=0-1023", new ByteRange(0, 1_024).toString());
+        assertEquals("bytes=1024-", new ByteRange(1_024, Long.MAX_VALUE).toString());
+        assertTrue(new ByteRange(1_024, Long.MAX_VALUE).isOpenEnded());
+        assertFalse(new ByteRange(1, Long.MAX_VALUE - 1).isOpenEnded());
+    }
+
+    @Test
+    void convertedContextsAreMemoizedWithoutBeingRetained() throws InterruptedException {
+        reactor.util.context.Context reactorContext = reactor.util.context.Context.of("key", "value");
+        Context converted = FluxUtil.toUnisoftContext(reactorContext, Collections.emptyMap());
+        assertSame(converted, FluxUtil.toUnisoftContext(reactorContext, Collections.emptyMap()));
+
+        WeakReference<Object> value = convertContextHolding(new Object());
+        for (int i = 0; i < 100 && value.get() != null; i++) {
+            System.gc();
+            Thread.sleep(10);
+        }
+        assertNull(value.get());
+    }
+
+    private static WeakReference<Object> convertContextHolding(Object value) {
+        assertEquals(value, FluxUtil.toUnisoftContext(reactor.util.context.Context.of("key", value),
+                Collections.emptyMap()).getData("key").orElse(null));
+        return new WeakReference<>(value);
+    }
+
+    @Test
+    void withContextConvertsReactorContext() {
+        Map<String, String> attributes = new HashMap<>();
+        attributes.put("attribute", "attributeValue");
+        attributes.put("shared", "attributeValue");
+
+        Context context = FluxUtil.withContext(Mono::just, attributes)
+                .subscriberContext(reactor.util.context.Context.of("shared", "reactorValue", "reactor", "value"))
+                .block();
+
+        assertNotNull(context);
+        assertEquals("attributeValue", context.getData("attribute").orElse(null));
+        assertEquals("reactorValue", context.getData("shared").orElse(null));
+        assertEquals("value", context.getData("reactor").orElse(null));
+        assertEquals(3, context.getValues().size());
+    }
+
+    @Test
+    void withContextWithoutEntriesIsNone() {
+        assertSame(Context.NONE, FluxUtil.withContext(Mono::just).block());
+    }
+
+    @Test
+    void reactorContextConversionIsMemoized() {
+        reactor.util.context.Context reactorContext = reactor.util.context.Context.of("key", "value");
+
+        Context converted = FluxUtil.toUnisoftContext(reactorContext, Collections.emptyMap());
+
+        assertSame(converted, FluxUtil.toUnisoftContext(reactorContext, Collections.emptyMap()));
+        assertEquals("value", converted.getData("key").orElse(null));
+    }
+
+    @Test
+    void toReactorContext() {
+        Context context = new Context("key", "value").addData("key2", "value2").addData("nullValue", null);
+
+        reactor.util.context.Context reactorContext = FluxUtil.toReactorContext(context);
+
+        assertEquals("value", reactorContext.get("key"));
+        assertTrue(reactorContext.hasKey("key2"));
+        assertFalse(reactorContext.hasKey("nullValue"));
+        assertEquals(2, reactorContext.size());
+        assertEquals("value3", reactorContext.put("key3", "value3").get("key3"));
+        assertFalse(reactorContext.delete("key").hasKey("key"));
+        assertTrue(FluxUtil.toReactorContext(null).isEmpty());
+        assertTrue(FluxUtil.toReactorContext(Context.NONE).isEmpty());
+    }
+
+    @Test
+    void withUnisoftContextLayersOnSubscriberContext() {
+        Context context = new Context("shared", "unisoftValue").addData("unisoft", "value");
+
+        reactor.util.context.Context subscriberContext = Mono.subscriberContext()
+                .subscriberContext(FluxUtil.withUnisoftContext(context))
+                .subscriberContext(reactor.util.context.Context.of("shared", "reactorValue", "reactor", "value"))
+                .block();
+
+        assertNotNull(subscriberContext);
+        assertEquals("unisoftValue", subscriberContext.get("shared"));
+        assertEquals("value", subscriberContext.get("unisoft"));
+        assertEquals("value", subscriberContext.get("reactor"));
+        assertEquals(3, subscriberContext.size());
+    }
+
+    @Test
+    void toUnisoftContextView() {
+        Context context = FluxUtil.toUnisoftContext(reactor.util.context.Context.of("key", "value"))
+                .addData("key2", "value2");
+
+        assertEquals("value", context.getData("key").orElse(null));
+        assertEquals("value2", context.getData("key2").orElse(null));
+        assertFalse(context.getData("missing").isPresent());
+        assertSame(Context.NONE, FluxUtil.toUnisoftContext(reactor.util.context.Context.empty()));
+    }
+
+    @Test
+    void applyDeadlineSkipsExpiredWork() {
+        AtomicBoolean started = new AtomicBoolean();
+        Mono<Integer> work = Mono.fromCallable(() -> {
+            started.set(true);
+            return 1;
+        });
+
+        RuntimeException error = assertThrows(RuntimeException.class, () -> FluxUtil.applyDeadline(work)
+                .subscriberContext(FluxUtil.withDeadline(Deadline.after(Duration.ZERO)))
+                .block());
+
+        assertTrue(error.getCause() instanceof TimeoutException);
+        assertFalse(started.get());
+    }
+
+    @Test
+    void applyDeadlineSkipsWorkThatCannotFinish() {
+        AtomicBoolean started = new AtomicBoolean();
+        Mono<Integer> work = Mono.fromCallable(() -> {
+            started.set(true);
+            return 1;
+        });
+
+        assertThrows(RuntimeException.class, () -> FluxUtil.applyDeadline(work, Duration.ofSeconds(10))
+                .subscriberContext(FluxUtil.withDeadline(Deadline.after(Duration.ofSeconds(1))))
+                .block());
+        assertFalse(started.get());
+    }
+
+    @Test
+    void applyDeadlineTimesOut() {
+        RuntimeException error = assertThrows(RuntimeException.class, () -> FluxUtil.applyDeadline(Mono.never())
+                .subscriberContext(FluxUtil.withDeadline(Deadline.after(Duration.ofMillis(50))))
+                .block(Duration.ofSeconds(10)));
+        assertTrue(error.getCause() instanceof TimeoutException);
+
+        assertThrows(RuntimeException.class, () -> FluxUtil.applyDeadline(Flux.interval(Duration.ofMillis(10)))
+                .subscriberContext(FluxUtil.withDeadline(Deadline.after(Duration.ofMillis(100))))
+                .blockLast(Duration.ofSeconds(10)));
+    }
+
+    @Test
+    void applyDeadlinePassesThrough() {
+        assertEquals(1, FluxUtil.applyDeadline(Mono.just(1)).block());
+        assertEquals(Arrays.asList(1, 2, 3), FluxUtil.applyDeadline(Flux.just(1, 2, 3))
+                .subscriberContext(FluxUtil.withDeadline(Deadline.after(Duration.ofSeconds(10))))
+                .collectList()
+                .block());
+    }
+
+    @Test
+    void withContextHonorsDeadline() {
+        AtomicBoolean called = new AtomicBoolean();
+
+        assertThrows(RuntimeException.class, () -> FluxUtil.withContext(context -> {
+            called.set(true);
+            return Mono.just(1);
+        }).subscriberContext(FluxUtil.withDeadline(Deadline.after(Duration.ZERO))).block());
+        assertFalse(called.get());
+
+        Deadline deadline = Deadline.after(Duration.ofSeconds(10));
+        assertSame(deadline, FluxUtil.withContext(context -> Mono.just(Deadline.from(context)))
+                .subscriberContext(FluxUtil.withDeadline(deadline))
+                .block());
+    }
+
+    @Test
+    void deadlineOnlyShrinks() {
+        Deadline deadline = Deadline.after(Duration.ofSeconds(10));
+
+        Deadline later = Mono.subscriberContext()
+                .map(context -> context.get(Deadline.KEY))
+                .subscriberContext(FluxUtil.withDeadline(Deadline.after(Duration.ofSeconds(20))))
+                .subscriberContext(FluxUtil.withDeadline(deadline))
+                .block();
+        Deadline shrunk = Mono.subscriberContext()
+                .map(context -> context.get(Deadline.KEY))
+                .subscriberContext(FluxUtil.shrinkDeadline(Duration.ofSeconds(1)))
+                .subscriberContext(FluxUtil.withDeadline(deadline))
+                .block();
+
+        assertSame(deadline, later);
+        assertNotNull(shrunk);
+        assertTrue(shrunk.compareTo(deadline) < 0);
+    }
 
     @Test
     void testIsFluxByteBufferInvalidType() {
@@ -1,15 +1,39 @@
 package com.unisoft.core.util;
 
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.Arguments;
 import org.junit.jupiter.params.provider.MethodSource;
+import org.reactivestreams.Subscription;
+import reactor.core.Disposable;
+import reactor.core.publisher.BaseSubscriber;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.ref.WeakReference;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.Stream;
 
 import static com.unisoft.core.util.UnisoftConfiguration.MAX_RETRY_COUNT;
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 class UnisoftConfigurationTest {
@@ -133,6 +157,55 @@ class UnisoftConfigurationTest {
         assertTrue(configuration.contains("variable2"));
     }
 
+    @Test
+    void clonesOnlyHoldTheirChanges() {
+        Map<String, String> values = new HashMap<>();
+        for (int i = 0; i < 1000; i++) {
+            values.put("variable" + i, "value" + i);
+        }
+        UnisoftConfiguration configuration = new UnisoftConfiguration(List.of()).putAll(values);
+
+        List<UnisoftConfiguration> clones = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            UnisoftConfiguration clone = configuration.clone().put("variable" + i, "override" + i);
+            clone.remove("variable999");
+            clones.add(clone);
+        }
+
+        for (int i = 0; i < clones.size(); i++) {
+            UnisoftConfiguration clone = clones.get(i);
+            assertEquals("override" + i, clone.get("variable" + i));
+            assertEquals("value500", clone.get("variable500"));
+            assertFalse(clone.contains("variable999"));
+            assertEquals(999, clone.snapshot().asMap().size());
+        }
+        assertEquals(values, configuration.snapshot().asMap());
+    }
+
+    @Test
+    void changesAreMergedIntoTheBase() {
+        Map<String, String> expected = new HashMap<>();
+        UnisoftConfiguration configuration = new UnisoftConfiguration(List.of());
+        Random random = new Random(42);
+        for (int i = 0; i < 10_000; i++) {
+            String name = "variable" + random.nextInt(200);
+            if (random.nextInt(3) == 0) {
+                assertEquals(expected.remove(name), configuration.remove(name));
+            } else {
+                expected.put(name, "value" + i);
+                configuration.put(name, "value" + i);
+            }
+            if (i % 1000 == 0) {
+                configuration = configuration.clone();
+            }
+        }
+
+        assertEquals(expected, configuration.snapshot().asMap());
+        for (int i = 0; i < 200; i++) {
+            assertEquals(expected.get("variable" + i), configuration.get("variable" + i));
+        }
+    }
+
     @Test
     void loadValueTwice() {
         UnisoftConfiguration configuration = new UnisoftConfiguration();
@@ -142,6 +215,20 @@ class UnisoftConfigurationTest {
         assertEquals(tracingDisabled, tracingDisabled2);
     }
 
+    @Test
+    void knownConfigurationsArePreloaded() {
+        System.setProperty(MAX_RETRY_COUNT, "7");
+        UnisoftConfiguration configuration;
+        try {
+            configuration = new UnisoftConfiguration();
+        } finally {
+            System.clearProperty(MAX_RETRY_COUNT);
+        }
+
+        // read when the configuration was created, not on lookup.
+        assertEquals("7", configuration.get(MAX_RETRY_COUNT));
+    }
+
     @ParameterizedTest
     @MethodSource("getOrDefaultSupplier")
     void getOrDefault(String configurationValue, Object defaultValue, Object expectedValue) {
@@ -155,4 +242,338 @@ class UnisoftConfigurationTest {
     void getOrDefaultReturnsDefault() {
         assertEquals("42", new UnisoftConfiguration().get("empty", "42"));
     }
-}
\ No newline at end of file
+
+    @Test
+    void versionIncreasesOnChange() {
+        UnisoftConfiguration configuration = new UnisoftConfiguration();
+        long version = configuration.getVersion();
+
+        configuration.put("variable1", "value1");
+        assertEquals(version + 1, configuration.getVersion());
+
+        // neither setting the same value nor loading a value from the environment is a change.
+        configuration.put("variable1", "value1");
+        configuration.get(MY_CONFIGURATION);
+        assertEquals(version + 1, configuration.getVersion());
+
+        configuration.remove("variable1");
+        assertEquals(version + 2, configuration.getVersion());
+    }
+
+    @Test
+    void updateIsAtomic() {
+        UnisoftConfiguration configuration = new UnisoftConfiguration().put("variable1", "value1");
+        ConfigurationSnapshot before = configuration.snapshot();
+
+        configuration.update(values -> {
+            values.put("variable2", "value2");
+            values.remove("variable1");
+        });
+
+        assertEquals("value1", before.get("variable1"));
+        assertNull(before.get("variable2"));
+        assertEquals(before.getVersion() + 1, configuration.getVersion());
+        assertEquals(Map.of("variable2", "value2"), configuration.snapshot().asMap());
+        assertThrows(NullPointerException.class, () -> configuration.update(values -> values.put("variable3", null)));
+        assertThrows(NullPointerException.class, () -> configuration.putAll(null));
+    }
+
+    @Test
+    void listenersAreNotifiedOfChanges() throws InterruptedException {
+        UnisoftConfiguration configuration = new UnisoftConfiguration();
+        BlockingQueue<ConfigurationSnapshot> changes = new LinkedBlockingQueue<>();
+        ConfigurationListener listener = (previous, current) -> changes.add(current);
+        configuration.addListener(listener);
+
+        configuration.putAll(Map.of("variable1", "value1", "variable2", "value2"));
+
+        ConfigurationSnapshot change = changes.poll(10, TimeUnit.SECONDS);
+        assertNotNull(change);
+        assertEquals("value1", change.get("variable1"));
+        assertEquals("value2", change.get("variable2"));
+
+        assertTrue(configuration.removeListener(listener));
+        configuration.put("variable1", "value3");
+        assertNull(changes.poll(100, TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    void noneIgnoresChanges() {
+        UnisoftConfiguration.NONE.putAll(Map.of("variable1", "value1"));
+
+        assertNull(UnisoftConfiguration.NONE.get("variable1"));
+        assertEquals(0, UnisoftConfiguration.NONE.getVersion());
+    }
+
+    @Test
+    void missingConfigurationIsLoadedOnce() {
+        UnisoftConfiguration configuration = spy(UnisoftConfiguration.class);
+
+        for (int i = 0; i < 10; i++) {
+            assertNull(configuration.get(MY_CONFIGURATION));
+        }
+
+        verify(configuration, times(1)).loadFromProperties(MY_CONFIGURATION);
+        verify(configuration, times(1)).loadFromEnvironment(MY_CONFIGURATION);
+        assertFalse(configuration.contains(MY_CONFIGURATION));
+        assertFalse(configuration.snapshot().asMap().containsKey(MY_CONFIGURATION));
+    }
+
+    @Test
+    void missingConfigurationIsReloadedAfterChangeOrRefresh() {
+        UnisoftConfiguration configuration = spy(UnisoftConfiguration.class);
+        assertNull(configuration.get(MY_CONFIGURATION));
+
+        configuration.put("variable1", "value1");
+        assertNull(configuration.get(MY_CONFIGURATION));
+        verify(configuration, times(2)).loadFromProperties(MY_CONFIGURATION);
+
+        when(configuration.loadFromProperties(MY_CONFIGURATION)).thenReturn(EXPECTED_VALUE);
+        assertNull(configuration.get(MY_CONFIGURATION));
+        assertEquals(EXPECTED_VALUE, configuration.refresh().get(MY_CONFIGURATION));
+    }
+
+    @Test
+    void propertiesReadDefaultsUntilSet() {
+        UnisoftConfiguration configuration = new UnisoftConfiguration();
+        IntProperty intProperty = configuration.getIntProperty("intProperty", 3);
+        LongProperty longProperty = configuration.getLongProperty("longProperty", 4L);
+        BooleanProperty booleanProperty = configuration.getBooleanProperty("booleanProperty", true);
+        DurationProperty durationProperty = configuration.getDurationProperty("durationProperty",
+                Duration.ofSeconds(5));
+        Property<String> property = configuration.getProperty("property", String::toUpperCase, DEFAULT_VALUE);
+
+        assertEquals(3, intProperty.getAsInt());
+        assertEquals(4L, longProperty.getAsLong());
+        assertTrue(booleanProperty.getAsBoolean());
+        assertEquals(Duration.ofSeconds(5), durationProperty.get());
+        assertEquals(DEFAULT_VALUE, property.get());
+
+        configuration.putAll(Map.of(
+                "intProperty", "42",
+                "longProperty", "42000000000",
+                "booleanProperty", "false",
+                "durationProperty", "PT1M",
+                "property", EXPECTED_VALUE));
+
+        assertEquals(42, intProperty.getAsInt());
+        assertEquals(42_000_000_000L, longProperty.getAsLong());
+        assertFalse(booleanProperty.getAsBoolean());
+        assertEquals(Duration.ofMinutes(1), durationProperty.get());
+        assertEquals(EXPECTED_VALUE.toUpperCase(), property.get());
+    }
+
+    @Test
+    void propertiesFollowChanges() {
+        UnisoftConfiguration configuration = new UnisoftConfiguration().put("durationProperty", "250");
+        DurationProperty durationProperty = configuration.getDurationProperty("durationProperty", Duration.ZERO);
+        assertEquals(250, durationProperty.toMillis());
+
+        configuration.put("durationProperty", "PT2S");
+        assertEquals(Duration.ofSeconds(2), durationProperty.get());
+
+        configuration.put("durationProperty", "");
+        assertEquals(Duration.ZERO, durationProperty.get());
+
+        configuration.put("durationProperty", "soon");
+        assertThrows(NumberFormatException.class, durationProperty::get);
+    }
+
+    @Test
+    void sourcesAreLookedUpInOrder() {
+        ConfigurationSource probed = name -> name.startsWith("probed") ? "probed" : null;
+        UnisoftConfiguration configuration = new UnisoftConfiguration(List.of(
+                ConfigurationSources.fromMap(Map.of("first", "first")),
+                probed,
+                ConfigurationSources.fromMap(Map.of("first", "last", "probed1", "last", "last", "last"))));
+
+        assertEquals("first", configuration.get("first"));
+        assertEquals("probed", configuration.get("probed1"));
+        assertEquals("last", configuration.get("last"));
+        assertNull(configuration.get(MY_CONFIGURATION));
+
+        configuration.put("last", EXPECTED_VALUE);
+        assertEquals(EXPECTED_VALUE, configuration.get("last"));
+        assertEquals(EXPECTED_VALUE, configuration.remove("last"));
+        assertEquals("last", configuration.get("last"));
+    }
+
+    @Test
+    void bulkSourcesAreLoadedOnce() {
+        AtomicInteger loads = new AtomicInteger();
+        AtomicInteger probes = new AtomicInteger();
+        ConfigurationSource source = new ConfigurationSource() {
+            @Override
+            public String get(String name) {
+                probes.incrementAndGet();
+                return null;
+            }
+
+            @Override
+            public Map<String, String> loadAll() {
+                loads.incrementAndGet();
+                return Map.of(MY_CONFIGURATION, EXPECTED_VALUE);
+            }
+        };
+        UnisoftConfiguration configuration = new UnisoftConfiguration(List.of(source));
+
+        for (int i = 0; i < 10; i++) {
+            assertEquals(EXPECTED_VALUE, configuration.get(MY_CONFIGURATION));
+            assertNull(configuration.get("missing" + i));
+        }
+
+        assertEquals(1, loads.get());
+        assertEquals(0, probes.get());
+        assertEquals(Map.of(MY_CONFIGURATION, EXPECTED_VALUE), configuration.snapshot().asMap());
+    }
+
+    @Test
+    void probedSourcesAreProbedOncePerName() {
+        AtomicInteger probes = new AtomicInteger();
+        UnisoftConfiguration configuration = new UnisoftConfiguration(List.of(name -> {
+            probes.incrementAndGet();
+            return MY_CONFIGURATION.equals(name) ? EXPECTED_VALUE : null;
+        }));
+
+        for (int i = 0; i < 10; i++) {
+            assertEquals(EXPECTED_VALUE, configuration.get(MY_CONFIGURATION));
+            assertNull(configuration.get("missing"));
+        }
+
+        assertEquals(2, probes.get());
+    }
+
+    @Test
+    void loadedValuesBelowProbedSourcesAreLookedUpOnce() {
+        AtomicInteger probes = new AtomicInteger();
+        UnisoftConfiguration configuration = new UnisoftConfiguration(List.of(name -> {
+            probes.incrementAndGet();
+            return null;
+        }, ConfigurationSources.fromMap(Map.of(MY_CONFIGURATION, EXPECTED_VALUE))));
+
+        for (int i = 0; i < 10; i++) {
+            assertEquals(EXPECTED_VALUE, configuration.get(MY_CONFIGURATION));
+        }
+
+        assertEquals(1, probes.get());
+    }
+
+    @Test
+    void sourcesDoNotRetainConfigurations() throws InterruptedException {
+        List<Runnable> listeners = new CopyOnWriteArrayList<>();
+        ConfigurationSource source = new ConfigurationSource() {
+            @Override
+            public String get(String name) {
+                return null;
+            }
+
+            @Override
+            public void addChangeListener(Runnable listener) {
+                listeners.add(listener);
+            }
+
+            @Override
+            public void removeChangeListener(Runnable listener) {
+                listeners.remove(listener);
+            }
+        };
+        WeakReference<UnisoftConfiguration> configuration =
+                new WeakReference<>(new UnisoftConfiguration(List.of(source)));
+        assertEquals(1, listeners.size());
+
+        for (int i = 0; i < 100 && configuration.get() != null; i++) {
+            System.gc();
+            Thread.sleep(10);
+        }
+        assertNull(configuration.get());
+
+        listeners.forEach(Runnable::run);
+        assertTrue(listeners.isEmpty());
+    }
+
+    @Test
+    void fileSourceIsReloadedOnRefresh(@TempDir Path tempDir) throws IOException {
+        Path file = Files.writeString(tempDir.resolve("configuration.properties"),
+                "# comment\n" + MY_CONFIGURATION + "=" + EXPECTED_VALUE + "\nother: value\n");
+        UnisoftConfiguration configuration = new UnisoftConfiguration(List.of(new ConfigurationSource() {
+            @Override
+            public String get(String name) {
+                return loadAll().get(name);
+            }
+
+            @Override
+            public Map<String, String> loadAll() {
+                return ConfigurationSources.fromFile(file).loadAll();
+            }
+        }));
+        assertEquals(EXPECTED_VALUE, configuration.get(MY_CONFIGURATION));
+        assertEquals("value", configuration.get("other"));
+
+        assertEquals(0, configuration.refresh().getVersion());
+        Files.writeString(file, MY_CONFIGURATION + "=" + UNEXPECTED_VALUE + "\n");
+        assertEquals(1, configuration.refresh().getVersion());
+        assertEquals(UNEXPECTED_VALUE, configuration.get(MY_CONFIGURATION));
+        assertNull(configuration.get("other"));
+    }
+
+    @Test
+    void missingFileIsRejected(@TempDir Path tempDir) {
+        assertThrows(UncheckedIOException.class, () -> ConfigurationSources.fromFile(tempDir.resolve("missing")));
+    }
+
+    @Test
+    void changesAreStreamedPerName() throws InterruptedException {
+        UnisoftConfiguration configuration = new UnisoftConfiguration();
+        BlockingQueue<ConfigChange> changes = new LinkedBlockingQueue<>();
+        Disposable subscription = configuration.changes("variable1").subscribe(changes::add);
+
+        configuration.put("variable2", "value2");
+        configuration.put("variable1", "value1");
+        assertEquals(new ConfigChange("variable1", null, "value1", 2), changes.poll(10, TimeUnit.SECONDS));
+
+        configuration.remove("variable1");
+        assertEquals(new ConfigChange("variable1", "value1", null, 3), changes.poll(10, TimeUnit.SECONDS));
+
+        subscription.dispose();
+        configuration.put("variable1", "value3");
+        assertNull(changes.poll(100, TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    void pendingChangesAreCoalesced() throws InterruptedException {
+        UnisoftConfiguration configuration = new UnisoftConfiguration();
+        Map<String, ConfigChange> changes = new ConcurrentHashMap<>();
+        BaseSubscriber<ConfigChange> subscriber = new BaseSubscriber<>() {
+            @Override
+            protected void hookOnSubscribe(Subscription subscription) {
+                // nothing requested until the burst is over.
+            }
+
+            @Override
+            protected void hookOnNext(ConfigChange change) {
+                assertNull(changes.put(change.getName(), change));
+            }
+        };
+        configuration.changes().subscribe(subscriber);
+        CountDownLatch notified = new CountDownLatch(1);
+        configuration.addListener((previous, current) -> {
+            if (current.getVersion() == 5) {
+                notified.countDown();
+            }
+        });
+
+        configuration.put("variable1", "value1");
+        configuration.put("variable1", "value2");
+        configuration.put("variable2", "value1");
+        configuration.put("variable3", "value1");
+        configuration.remove("variable3");
+        assertTrue(notified.await(10, TimeUnit.SECONDS));
+        subscriber.request(10);
+        subscriber.dispose();
+
+        assertEquals(2, changes.size(), changes.toString());
+        assertEquals("value2", changes.get("variable1").getNewValue());
+        assertNull(changes.get("variable1").getOldValue());
+        assertEquals("value1", changes.get("variable2").getNewValue());
+    }
+}